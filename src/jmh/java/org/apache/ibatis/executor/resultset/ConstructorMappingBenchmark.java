@@ -0,0 +1,199 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Auto-maps 1000 rows to immutable DTOs through their constructor, and to beans through their setters for comparison.
+ * With the {@code custom} object factory the DTOs are created by the object factory instead of a method handle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConstructorMappingBenchmark {
+
+  private static final int ROWS = 1000;
+  private static final String SELECT = "select id, title, author_id, views from articles order by id";
+
+  public static final class ArticleSummary {
+    private final Integer id;
+    private final String title;
+    private final Integer authorId;
+    private final Long views;
+
+    public ArticleSummary(Integer id, String title, Integer authorId, Long views) {
+      this.id = id;
+      this.title = title;
+      this.authorId = authorId;
+      this.views = views;
+    }
+
+    public Integer getId() {
+      return id;
+    }
+
+    public String getTitle() {
+      return title;
+    }
+
+    public Integer getAuthorId() {
+      return authorId;
+    }
+
+    public Long getViews() {
+      return views;
+    }
+  }
+
+  public static class ArticleBean {
+    private Integer id;
+    private String title;
+    private Integer authorId;
+    private Long views;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+
+    public String getTitle() {
+      return title;
+    }
+
+    public void setTitle(String title) {
+      this.title = title;
+    }
+
+    public Integer getAuthorId() {
+      return authorId;
+    }
+
+    public void setAuthorId(Integer authorId) {
+      this.authorId = authorId;
+    }
+
+    public Long getViews() {
+      return views;
+    }
+
+    public void setViews(Long views) {
+      this.views = views;
+    }
+  }
+
+  public interface ArticleMapper {
+    @Select(SELECT)
+    List<ArticleSummary> selectSummaries();
+
+    @Select(SELECT)
+    List<ArticleBean> selectBeans();
+  }
+
+  public static class CustomObjectFactory extends DefaultObjectFactory {
+    private static final long serialVersionUID = 1L;
+  }
+
+  @Param({"default", "custom"})
+  public String objectFactory;
+
+  private PooledDataSource dataSource;
+  private SqlSessionFactory sqlSessionFactory;
+
+  @Setup
+  public void setup() throws SQLException {
+    dataSource = new PooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:constructor_mapping", "sa", "");
+    try (Connection connection = dataSource.getConnection()) {
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("create table articles (id int, title varchar(50), author_id int, views bigint)");
+      }
+      try (PreparedStatement statement = connection.prepareStatement("insert into articles values (?, ?, ?, ?)")) {
+        for (int row = 0; row < ROWS; row++) {
+          statement.setInt(1, row);
+          statement.setString(2, "Article " + row);
+          statement.setInt(3, row % 10);
+          statement.setLong(4, row * 1000L);
+          statement.addBatch();
+        }
+        statement.executeBatch();
+      }
+    }
+
+    Configuration configuration = new Configuration(new Environment("benchmark", new JdbcTransactionFactory(), dataSource));
+    configuration.setMapUnderscoreToCamelCase(true);
+    if ("custom".equals(objectFactory)) {
+      configuration.setObjectFactory(new CustomObjectFactory());
+    }
+    configuration.addMapper(ArticleMapper.class);
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+  }
+
+  @TearDown
+  public void tearDown() throws SQLException {
+    try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+      statement.execute("shutdown");
+    }
+    dataSource.forceCloseAll();
+  }
+
+  @Benchmark
+  public List<ArticleSummary> immutableDtos() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      return sqlSession.getMapper(ArticleMapper.class).selectSummaries();
+    }
+  }
+
+  @Benchmark
+  public List<ArticleBean> mutableBeans() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      return sqlSession.getMapper(ArticleMapper.class).selectBeans();
+    }
+  }
+
+}
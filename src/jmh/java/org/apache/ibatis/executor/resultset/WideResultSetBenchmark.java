@@ -0,0 +1,153 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.apache.ibatis.type.IntegerTypeHandler;
+import org.apache.ibatis.type.StringTypeHandler;
+import org.apache.ibatis.type.TypeHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Reads a result set of 100 columns and 100 rows. The type handlers read every cell by column label and by column
+ * index, which is what result set handlers do for mapped and auto-mapped columns, and a mapper auto-maps the rows to
+ * maps.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WideResultSetBenchmark {
+
+  private static final int COLUMNS = 100;
+  private static final int ROWS = 100;
+  private static final String SELECT = "select * from wide";
+
+  public interface WideMapper {
+    @Select(SELECT)
+    List<Map<String, Object>> selectAll();
+  }
+
+  private PooledDataSource dataSource;
+  private SqlSessionFactory sqlSessionFactory;
+  private Connection connection;
+  private final String[] columnLabels = new String[COLUMNS];
+  private final TypeHandler<?>[] typeHandlers = new TypeHandler<?>[COLUMNS];
+
+  @Setup
+  public void setup() throws SQLException {
+    dataSource = new PooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:wide_result_set", "sa", "");
+    connection = dataSource.getConnection();
+    StringBuilder create = new StringBuilder("create table wide (");
+    StringBuilder insert = new StringBuilder("insert into wide values (");
+    for (int i = 0; i < COLUMNS; i++) {
+      String separator = i == 0 ? "" : ", ";
+      columnLabels[i] = "C" + i;
+      // half of the columns are numbers, the other half text
+      create.append(separator).append(columnLabels[i]).append(i % 2 == 0 ? " int" : " varchar(20)");
+      insert.append(separator).append('?');
+      typeHandlers[i] = i % 2 == 0 ? new IntegerTypeHandler() : new StringTypeHandler();
+    }
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(create.append(')').toString());
+    }
+    try (PreparedStatement statement = connection.prepareStatement(insert.append(')').toString())) {
+      for (int row = 0; row < ROWS; row++) {
+        for (int i = 0; i < COLUMNS; i++) {
+          if (i % 2 == 0) {
+            statement.setInt(i + 1, row * COLUMNS + i);
+          } else {
+            statement.setString(i + 1, "value " + row + "-" + i);
+          }
+        }
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+
+    Configuration configuration = new Configuration(new Environment("benchmark", new JdbcTransactionFactory(), dataSource));
+    configuration.addMapper(WideMapper.class);
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+  }
+
+  @TearDown
+  public void tearDown() throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("shutdown");
+    }
+    connection.close();
+    dataSource.forceCloseAll();
+  }
+
+  @Benchmark
+  public void readByColumnLabel(Blackhole blackhole) throws SQLException {
+    try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(SELECT)) {
+      while (rs.next()) {
+        for (int i = 0; i < COLUMNS; i++) {
+          blackhole.consume(typeHandlers[i].getResult(rs, columnLabels[i]));
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public void readByColumnIndex(Blackhole blackhole) throws SQLException {
+    try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(SELECT)) {
+      while (rs.next()) {
+        for (int i = 0; i < COLUMNS; i++) {
+          blackhole.consume(typeHandlers[i].getResult(rs, i + 1));
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public List<Map<String, Object>> autoMapToMaps() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      return sqlSession.getMapper(WideMapper.class).selectAll();
+    }
+  }
+
+}
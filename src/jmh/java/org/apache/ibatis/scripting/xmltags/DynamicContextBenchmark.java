@@ -0,0 +1,105 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.parsing.XNode;
+import org.apache.ibatis.parsing.XPathParser;
+import org.apache.ibatis.session.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generates the SQL of a typical {@code <where><if>} statement. Run it with the gc profiler ({@code -prof gc}) to see
+ * what a dynamic context allocates per execution, once with the compiled SQL program and once with the SqlNode tree.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DynamicContextBenchmark {
+
+  static final String WHERE_SCRIPT = "<script>"
+      + "select * from author"
+      + "<where>"
+      + "  <if test=\"username != null\">and username = #{username}</if>"
+      + "  <if test=\"password != null\">and password = #{password}</if>"
+      + "  <if test=\"email != null\">and email = #{email}</if>"
+      + "  <if test=\"bio != null\">and bio = #{bio}</if>"
+      + "  <if test=\"id > 0\">and id = #{id}</if>"
+      + "</where>"
+      + "</script>";
+
+  @Param({"bean", "map"})
+  public String parameterType;
+
+  private SqlSource program;
+  private SqlSource sqlNodeTree;
+  private Object parameter;
+
+  @Setup
+  public void setup() {
+    Configuration configuration = new Configuration();
+    XNode script = new XPathParser(WHERE_SCRIPT).evalNode("/script");
+    XMLScriptBuilder builder = new XMLScriptBuilder(configuration, script, Author.class);
+    program = builder.parseScriptNode();
+    sqlNodeTree = new DynamicSqlSource(configuration, builder.parseDynamicTags(script));
+    parameter = "bean".equals(parameterType) ? newAuthor() : newAuthorMap();
+  }
+
+  static Author newAuthor() {
+    return new Author(101, "jim", "********", "jim@ibatis.apache.org", null, Section.NEWS);
+  }
+
+  static Map<String, Object> newAuthorMap() {
+    Map<String, Object> author = new HashMap<>();
+    author.put("id", 101);
+    author.put("username", "jim");
+    author.put("password", "********");
+    author.put("email", "jim@ibatis.apache.org");
+    author.put("bio", null);
+    return author;
+  }
+
+  @Benchmark
+  public BoundSql program() {
+    return program.getBoundSql(parameter);
+  }
+
+  @Benchmark
+  public BoundSql sqlNodeTree() {
+    return sqlNodeTree.getBoundSql(parameter);
+  }
+
+}
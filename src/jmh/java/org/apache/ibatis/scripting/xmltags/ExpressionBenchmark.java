@@ -0,0 +1,107 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.session.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Evaluates the test expressions of a dynamic where clause with their {@link CompiledExpression} and with OGNL, and
+ * generates the SQL of the statement they belong to.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpressionBenchmark {
+
+  private static final String[] EXPRESSIONS = {
+      "username != null and username != ''",
+      "email != null",
+      "bio == null or bio.length() == 0",
+      "id > 0",
+      "favouriteSection != null"
+  };
+
+  private static final String SCRIPT = "<script>"
+      + "select * from author"
+      + "<where>"
+      + "  <if test=\"" + EXPRESSIONS[0] + "\">and username = #{username}</if>"
+      + "  <if test=\"" + EXPRESSIONS[1] + "\">and email = #{email}</if>"
+      + "  <if test=\"" + EXPRESSIONS[2] + "\">and bio is null</if>"
+      + "  <if test=\"" + EXPRESSIONS[3] + "\">and id = #{id}</if>"
+      + "  <if test=\"" + EXPRESSIONS[4] + "\">and favourite_section = #{favouriteSection}</if>"
+      + "</where>"
+      + "</script>";
+
+  private final CompiledExpression[] compiledExpressions = new CompiledExpression[EXPRESSIONS.length];
+  private Map<String, Object> bindings;
+  private SqlSource sqlSource;
+  private Author author;
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < EXPRESSIONS.length; i++) {
+      compiledExpressions[i] = CompiledExpression.parse(EXPRESSIONS[i]);
+      if (compiledExpressions[i] == null) {
+        throw new IllegalStateException("The expression '" + EXPRESSIONS[i] + "' is not compiled.");
+      }
+    }
+    Configuration configuration = new Configuration();
+    author = new Author(101, "jim", "********", "jim@ibatis.apache.org", null, Section.NEWS);
+    bindings = new DynamicContext(configuration, author).getBindings();
+    sqlSource = new XMLLanguageDriver().createSqlSource(configuration, SCRIPT, Author.class);
+  }
+
+  @Benchmark
+  public void compiled(Blackhole blackhole) {
+    for (CompiledExpression expression : compiledExpressions) {
+      blackhole.consume(expression.getValue(bindings));
+    }
+  }
+
+  @Benchmark
+  public void ognl(Blackhole blackhole) {
+    for (String expression : EXPRESSIONS) {
+      blackhole.consume(OgnlCache.getValue(expression, bindings));
+    }
+  }
+
+  @Benchmark
+  public BoundSql statement() {
+    return sqlSource.getBoundSql(author);
+  }
+
+}
@@ -57,4 +57,16 @@ public @interface UpdateProvider {
    */
   String method() default "";
 
+  /**
+   * Specify whether the provider method returns the same SQL for the same arguments.
+   *
+   * <p>
+   * When {@code true}, the statement parsed from each SQL the method returns is cached and reused, and a method that
+   * takes no argument from the mapper method is invoked only once.
+   *
+   * @return {@code true} if the provider method is deterministic
+   * @since 3.5.2
+   */
+  boolean deterministic() default false;
+
 }
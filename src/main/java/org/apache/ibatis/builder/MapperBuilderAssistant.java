@@ -446,6 +446,30 @@ public class MapperBuilderAssistant extends BaseBuilder {
             String resultSet,
             String foreignColumn,
             boolean lazy) {
+        return buildResultMapping(resultType, property, column, javaType, jdbcType, nestedSelect, nestedResultMap, notNullColumn,
+                columnPrefix, typeHandler, flags, resultSet, foreignColumn, lazy, null, null);
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public ResultMapping buildResultMapping(
+            Class<?> resultType,
+            String property,
+            String column,
+            Class<?> javaType,
+            JdbcType jdbcType,
+            String nestedSelect,
+            String nestedResultMap,
+            String notNullColumn,
+            String columnPrefix,
+            Class<? extends TypeHandler<?>> typeHandler,
+            List<ResultFlag> flags,
+            String resultSet,
+            String foreignColumn,
+            boolean lazy,
+            String nestedBatchSelect,
+            String batchKeyProperty) {
         // 若 javaType 为空，这里根据 property 的属性进行解析。关于下面方法中的参数，
         // 这里说明一下:
         // - resultType:即 <resultMap type="xxx"/> 中的 type 属性
@@ -460,6 +484,8 @@ public class MapperBuilderAssistant extends BaseBuilder {
         return new ResultMapping.Builder(configuration, property, column, javaTypeClass)
                 .jdbcType(jdbcType)
                 .nestedQueryId(applyCurrentNamespace(nestedSelect, true))
+                .nestedBatchQueryId(applyCurrentNamespace(nestedBatchSelect, true))
+                .batchKeyProperty(batchKeyProperty)
                 .nestedResultMapId(applyCurrentNamespace(nestedResultMap, true))
                 .resultSet(resultSet)
                 .typeHandler(typeHandlerInstance)
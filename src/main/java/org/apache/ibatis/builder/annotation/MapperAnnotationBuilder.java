@@ -148,7 +148,8 @@ public class MapperAnnotationBuilder {
 
   private void parsePendingMethods() {
     Collection<MethodResolver> incompleteMethods = configuration.getIncompleteMethods();
-    synchronized (incompleteMethods) {
+    configuration.getIncompleteElementsLock().lock();
+    try {
       Iterator<MethodResolver> iter = incompleteMethods.iterator();
       while (iter.hasNext()) {
         try {
@@ -158,6 +159,8 @@ public class MapperAnnotationBuilder {
           // This method is still missing a resource
         }
       }
+    } finally {
+      configuration.getIncompleteElementsLock().unlock();
     }
   }
 
@@ -21,6 +21,9 @@ import java.util.Map;
 
 import org.apache.ibatis.annotations.Lang;
 import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.impl.BoundedConcurrentCache;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.SqlSource;
 import org.apache.ibatis.reflection.ParamNameResolver;
@@ -41,6 +44,8 @@ public class ProviderSqlSource implements SqlSource {
   private Class<?>[] providerMethodParameterTypes;
   private ProviderContext providerContext;
   private Integer providerContextIndex;
+  // sql sources by returned sql and parameter type, null when the provider method is not deterministic
+  private Cache sqlSourceCache;
 
   /**
    * @deprecated Please use the {@link #ProviderSqlSource(Configuration, Object, Class, Method)} instead of this.
@@ -61,6 +66,9 @@ public class ProviderSqlSource implements SqlSource {
       this.languageDriver = configuration.getLanguageDriver(lang == null ? null : lang.value());
       this.providerType = (Class<?>) provider.getClass().getMethod("type").invoke(provider);
       providerMethodName = (String) provider.getClass().getMethod("method").invoke(provider);
+      if ((Boolean) provider.getClass().getMethod("deterministic").invoke(provider)) {
+        this.sqlSourceCache = BoundedConcurrentCache.newCache("ProviderSqlSource", configuration.getDynamicSqlCacheSize());
+      }
 
       if (providerMethodName.length() == 0 && ProviderMethodResolver.class.isAssignableFrom(this.providerType)) {
         this.providerMethod = ((ProviderMethodResolver) this.providerType.getDeclaredConstructor().newInstance())
@@ -111,6 +119,27 @@ public class ProviderSqlSource implements SqlSource {
   }
 
   private SqlSource createSqlSource(Object parameterObject) {
+    Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
+    if (sqlSourceCache == null) {
+      return languageDriver.createSqlSource(configuration, provideSql(parameterObject), parameterType);
+    }
+    // a method that takes no argument from the mapper method always returns the same sql, so it is not invoked again
+    boolean constantSql = providerMethodParameterTypes.length == (providerContext == null ? 0 : 1);
+    String sql = constantSql ? null : provideSql(parameterObject);
+    CacheKey cacheKey = new CacheKey();
+    if (!constantSql) {
+      cacheKey.update(sql);
+    }
+    cacheKey.update(parameterType);
+    SqlSource sqlSource = (SqlSource) sqlSourceCache.getObject(cacheKey);
+    if (sqlSource == null) {
+      sqlSource = languageDriver.createSqlSource(configuration, constantSql ? provideSql(parameterObject) : sql, parameterType);
+      sqlSourceCache.putObject(cacheKey, sqlSource);
+    }
+    return sqlSource;
+  }
+
+  private String provideSql(Object parameterObject) {
     try {
       int bindParameterCount = providerMethodParameterTypes.length - (providerContext == null ? 0 : 1);
       String sql;
@@ -132,8 +161,7 @@ public class ProviderSqlSource implements SqlSource {
                 + (bindParameterCount == 1 ? "named argument(@Param)" : "multiple arguments")
                 + " using a specifying parameterObject. In this case, please specify a 'java.util.Map' object.");
       }
-      Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
-      return languageDriver.createSqlSource(configuration, sql, parameterType);
+      return sql;
     } catch (BuilderException e) {
       throw e;
     } catch (Exception e) {
@@ -264,6 +264,20 @@ public class XMLConfigBuilder extends BaseBuilder {
         configuration.setDefaultExecutorType(ExecutorType.valueOf(props.getProperty("defaultExecutorType", "SIMPLE")));
         configuration.setDefaultStatementTimeout(integerValueOf(props.getProperty("defaultStatementTimeout"), null));
         configuration.setDefaultFetchSize(integerValueOf(props.getProperty("defaultFetchSize"), null));
+        configuration.setNestedSelectBatchSize(integerValueOf(props.getProperty("nestedSelectBatchSize"), 100));
+        configuration.setAdaptiveFetchSizeEnabled(booleanValueOf(props.getProperty("adaptiveFetchSizeEnabled"), false));
+        configuration.setAdaptiveFetchSizeMin(integerValueOf(props.getProperty("adaptiveFetchSizeMin"), 10));
+        configuration.setAdaptiveFetchSizeMax(integerValueOf(props.getProperty("adaptiveFetchSizeMax"), 1000));
+        configuration.setCompiledRowMappingEnabled(booleanValueOf(props.getProperty("compiledRowMappingEnabled"), false));
+        configuration.setAutoMappingCacheSize(integerValueOf(props.getProperty("autoMappingCacheSize"), 1024));
+        configuration.setCompactNestedRowKeysEnabled(booleanValueOf(props.getProperty("compactNestedRowKeysEnabled"), false));
+        configuration.setCompactMapRowsEnabled(booleanValueOf(props.getProperty("compactMapRowsEnabled"), false));
+        configuration.setParallelResultMappingEnabled(booleanValueOf(props.getProperty("parallelResultMappingEnabled"), false));
+        configuration.setParallelResultMappingBatchSize(integerValueOf(props.getProperty("parallelResultMappingBatchSize"), 1000));
+        configuration.setDynamicSqlCacheSize(integerValueOf(props.getProperty("dynamicSqlCacheSize"), 16));
+        configuration.setPositionalForEachBindingEnabled(booleanValueOf(props.getProperty("positionalForEachBindingEnabled"), false));
+        configuration.setForEachPaddingMaxSize(integerValueOf(props.getProperty("forEachPaddingMaxSize"), 1000));
+        configuration.setExpressionCacheSize(integerValueOf(props.getProperty("expressionCacheSize"), 4096));
         configuration.setMapUnderscoreToCamelCase(booleanValueOf(props.getProperty("mapUnderscoreToCamelCase"), false));
         configuration.setSafeRowBoundsEnabled(booleanValueOf(props.getProperty("safeRowBoundsEnabled"), false));
         configuration.setLocalCacheScope(LocalCacheScope.valueOf(props.getProperty("localCacheScope", "SESSION")));
@@ -148,7 +148,8 @@ public class XMLMapperBuilder extends BaseBuilder {
 
     private void parsePendingResultMaps() {
         Collection<ResultMapResolver> incompleteResultMaps = configuration.getIncompleteResultMaps();
-        synchronized (incompleteResultMaps) {
+        configuration.getIncompleteElementsLock().lock();
+        try {
             Iterator<ResultMapResolver> iter = incompleteResultMaps.iterator();
             while (iter.hasNext()) {
                 try {
@@ -158,13 +159,16 @@ public class XMLMapperBuilder extends BaseBuilder {
                     // ResultMap is still missing a resource...
                 }
             }
+        } finally {
+            configuration.getIncompleteElementsLock().unlock();
         }
     }
 
     private void parsePendingCacheRefs() {
         // 获取 解析失败的CacheRefResolver 列表
         Collection<CacheRefResolver> incompleteCacheRefs = configuration.getIncompleteCacheRefs();
-        synchronized (incompleteCacheRefs) {
+        configuration.getIncompleteElementsLock().lock();
+        try {
             Iterator<CacheRefResolver> iter = incompleteCacheRefs.iterator();
             // 通过迭代器遍历列表
             while (iter.hasNext()) {
@@ -179,12 +183,15 @@ public class XMLMapperBuilder extends BaseBuilder {
                     // 在后面的映射文件中，所以这里不能将解析失败的 CacheRefResolver 从集合中删除
                 }
             }
+        } finally {
+            configuration.getIncompleteElementsLock().unlock();
         }
     }
 
     private void parsePendingStatements() {
         Collection<XMLStatementBuilder> incompleteStatements = configuration.getIncompleteStatements();
-        synchronized (incompleteStatements) {
+        configuration.getIncompleteElementsLock().lock();
+        try {
             Iterator<XMLStatementBuilder> iter = incompleteStatements.iterator();
             while (iter.hasNext()) {
                 try {
@@ -194,6 +201,8 @@ public class XMLMapperBuilder extends BaseBuilder {
                     // Statement is still missing a resource...
                 }
             }
+        } finally {
+            configuration.getIncompleteElementsLock().unlock();
         }
     }
 
@@ -462,6 +471,8 @@ public class XMLMapperBuilder extends BaseBuilder {
         String javaType = context.getStringAttribute("javaType");
         String jdbcType = context.getStringAttribute("jdbcType");
         String nestedSelect = context.getStringAttribute("select");
+        String nestedBatchSelect = context.getStringAttribute("batchSelect");
+        String batchKeyProperty = context.getStringAttribute("batchKeyProperty");
         // 解析 resultMap 属性，该属性出现在 <association> 和 <collection> 节点中。
         // 若这两个节点不包含 resultMap 属性，则调用 processNestedResultMappings 方法. 解析嵌套 resultMap
         String nestedResultMap = context.getStringAttribute("resultMap",
@@ -477,7 +488,7 @@ public class XMLMapperBuilder extends BaseBuilder {
         Class<? extends TypeHandler<?>> typeHandlerClass = resolveClass(typeHandler);
         JdbcType jdbcTypeEnum = resolveJdbcType(jdbcType);
         // 构建 ResultMapping 对象
-        return builderAssistant.buildResultMapping(resultType, property, column, javaTypeClass, jdbcTypeEnum, nestedSelect, nestedResultMap, notNullColumn, columnPrefix, typeHandlerClass, flags, resultSet, foreignColumn, lazy);
+        return builderAssistant.buildResultMapping(resultType, property, column, javaTypeClass, jdbcTypeEnum, nestedSelect, nestedResultMap, notNullColumn, columnPrefix, typeHandlerClass, flags, resultSet, foreignColumn, lazy, nestedBatchSelect, batchKeyProperty);
     }
 
     private String processNestedResultMappings(XNode context, List<ResultMapping> resultMappings, Class<?> enclosingType) throws Exception {
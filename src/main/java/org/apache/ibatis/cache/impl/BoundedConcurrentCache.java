@@ -0,0 +1,139 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.apache.ibatis.cache.Cache;
+
+/**
+ * A thread safe in-memory cache of a bounded size, used internally for what MyBatis computes once per statement or
+ * result set. It is not meant to be the cache of a mapper namespace.
+ * <p>
+ * Reads do not lock. When the cache is full, entries that were not read since the cache was last swept are evicted
+ * first.
+ *
+ * @since 3.5.2
+ */
+public final class BoundedConcurrentCache implements Cache {
+
+  private final String id;
+  private final int maxSize;
+  private final ConcurrentHashMap<Object, Entry> entries = new ConcurrentHashMap<>();
+  private final AtomicBoolean evicting = new AtomicBoolean();
+  // where the last sweep stopped, only used by the thread that is evicting
+  private Iterator<Entry> hand;
+
+  private BoundedConcurrentCache(String id, int maxSize) {
+    this.id = id;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Creates a cache that keeps the given number of entries, or returns null when the size is not positive.
+   */
+  public static Cache newCache(String id, int maxSize) {
+    return maxSize > 0 ? new BoundedConcurrentCache(id, maxSize) : null;
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public int getSize() {
+    return entries.size();
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    entries.put(key, new Entry(value));
+    if (entries.size() > maxSize) {
+      evict();
+    }
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    // a volatile read is cheaper than a write on every hit
+    if (!entry.used) {
+      entry.used = true;
+    }
+    return entry.value;
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    Entry entry = entries.remove(key);
+    return entry == null ? null : entry.value;
+  }
+
+  @Override
+  public void clear() {
+    entries.clear();
+  }
+
+  @Override
+  public ReadWriteLock getReadWriteLock() {
+    return null;
+  }
+
+  private void evict() {
+    // one thread sweeps at a time, the others do not wait for it
+    if (!evicting.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      Iterator<Entry> iterator = hand;
+      while (entries.size() > maxSize) {
+        if (iterator == null || !iterator.hasNext()) {
+          iterator = entries.values().iterator();
+          if (!iterator.hasNext()) {
+            break;
+          }
+        }
+        Entry entry = iterator.next();
+        if (entry.used) {
+          // read since the last sweep, kept for another one
+          entry.used = false;
+        } else {
+          iterator.remove();
+        }
+      }
+      hand = iterator;
+    } finally {
+      evicting.set(false);
+    }
+  }
+
+  private static final class Entry {
+    private final Object value;
+    private volatile boolean used = true;
+
+    Entry(Object value) {
+      this.value = value;
+    }
+  }
+
+}
@@ -40,6 +40,7 @@ class PooledConnection implements InvocationHandler {
   private long lastUsedTimestamp;
   private int connectionTypeCode;
   private boolean valid;
+  private StatementCache statementCache;
 
   /**
    * Constructor for SimplePooledConnection that uses the Connection and PooledDataSource passed in.
@@ -73,6 +74,38 @@ class PooledConnection implements InvocationHandler {
     return valid && realConnection != null && dataSource.pingConnection(this);
   }
 
+  /**
+   * Getter for the statements cached with the real connection, created on first use.
+   *
+   * @return The statement cache
+   */
+  public StatementCache getStatementCache() {
+    if (statementCache == null) {
+      statementCache = new StatementCache(dataSource.getPoolMaximumCachedStatements());
+    }
+    return statementCache;
+  }
+
+  /**
+   * Hands the statements cached with the real connection over from the connection that previously wrapped it.
+   *
+   * @param previous - the previous wrapper of the real connection
+   */
+  public void takeStatementCache(PooledConnection previous) {
+    this.statementCache = previous.statementCache;
+    previous.statementCache = null;
+  }
+
+  /**
+   * Closes the statements cached with the real connection.
+   */
+  public void closeStatementCache() {
+    if (statementCache != null) {
+      statementCache.close();
+      statementCache = null;
+    }
+  }
+
   /**
    * Getter for the *real* connection that this wraps.
    *
@@ -23,6 +23,10 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Logger;
 
 import javax.sql.DataSource;
@@ -40,6 +44,13 @@ public class PooledDataSource implements DataSource {
 
   private static final Log log = LogFactory.getLog(PooledDataSource.class);
 
+  /*
+   * j.u.c lock instead of a monitor on the pool state, so that threads waiting
+   * for a connection (virtual threads in particular) never pin their carrier.
+   */
+  final Lock lock = new ReentrantLock();
+  private final Condition condition = lock.newCondition();
+
   private final PoolState state = new PoolState(this);
 
   private final UnpooledDataSource dataSource;
@@ -53,6 +64,7 @@ public class PooledDataSource implements DataSource {
   protected String poolPingQuery = "NO PING QUERY SET";
   protected boolean poolPingEnabled;
   protected int poolPingConnectionsNotUsedFor;
+  protected int poolMaximumCachedStatements = 50;
 
   private int expectedConnectionTypeCode;
 
@@ -169,6 +181,19 @@ public class PooledDataSource implements DataSource {
     forceCloseAll();
   }
 
+  /**
+   * The maximum number of statements cached with each connection for the
+   * {@link org.apache.ibatis.session.ExecutorType#CONNECTION_REUSE} executor.
+   *
+   * @param poolMaximumCachedStatements The maximum number of cached statements per connection
+   *
+   * @since 3.5.2
+   */
+  public void setPoolMaximumCachedStatements(int poolMaximumCachedStatements) {
+    this.poolMaximumCachedStatements = poolMaximumCachedStatements;
+    forceCloseAll();
+  }
+
   /**
    * The maximum number of tolerance for bad connection happens in one thread
    * which are applying for new {@link PooledConnection}.
@@ -271,6 +296,13 @@ public class PooledDataSource implements DataSource {
     return poolMaximumIdleConnections;
   }
 
+  /**
+   * @since 3.5.2
+   */
+  public int getPoolMaximumCachedStatements() {
+    return poolMaximumCachedStatements;
+  }
+
   public int getPoolMaximumLocalBadConnectionTolerance() {
     return poolMaximumLocalBadConnectionTolerance;
   }
@@ -299,12 +331,14 @@ public class PooledDataSource implements DataSource {
    * Closes all active and idle connections in the pool.
    */
   public void forceCloseAll() {
-    synchronized (state) {
+    lock.lock();
+    try {
       expectedConnectionTypeCode = assembleConnectionTypeCode(dataSource.getUrl(), dataSource.getUsername(), dataSource.getPassword());
       for (int i = state.activeConnections.size(); i > 0; i--) {
         try {
           PooledConnection conn = state.activeConnections.remove(i - 1);
           conn.invalidate();
+          conn.closeStatementCache();
 
           Connection realConn = conn.getRealConnection();
           if (!realConn.getAutoCommit()) {
@@ -319,6 +353,7 @@ public class PooledDataSource implements DataSource {
         try {
           PooledConnection conn = state.idleConnections.remove(i - 1);
           conn.invalidate();
+          conn.closeStatementCache();
 
           Connection realConn = conn.getRealConnection();
           if (!realConn.getAutoCommit()) {
@@ -329,6 +364,8 @@ public class PooledDataSource implements DataSource {
           // ignore
         }
       }
+    } finally {
+      lock.unlock();
     }
     if (log.isDebugEnabled()) {
       log.debug("PooledDataSource forcefully closed/removed all connections.");
@@ -345,7 +382,8 @@ public class PooledDataSource implements DataSource {
 
   protected void pushConnection(PooledConnection conn) throws SQLException {
 
-    synchronized (state) {
+    lock.lock();
+    try {
       state.activeConnections.remove(conn);
       if (conn.isValid()) {
         if (state.idleConnections.size() < poolMaximumIdleConnections && conn.getConnectionTypeCode() == expectedConnectionTypeCode) {
@@ -354,6 +392,7 @@ public class PooledDataSource implements DataSource {
             conn.getRealConnection().rollback();
           }
           PooledConnection newConn = new PooledConnection(conn.getRealConnection(), this);
+          newConn.takeStatementCache(conn);
           state.idleConnections.add(newConn);
           newConn.setCreatedTimestamp(conn.getCreatedTimestamp());
           newConn.setLastUsedTimestamp(conn.getLastUsedTimestamp());
@@ -361,12 +400,13 @@ public class PooledDataSource implements DataSource {
           if (log.isDebugEnabled()) {
             log.debug("Returned connection " + newConn.getRealHashCode() + " to pool.");
           }
-          state.notifyAll();
+          condition.signal();
         } else {
           state.accumulatedCheckoutTime += conn.getCheckoutTime();
           if (!conn.getRealConnection().getAutoCommit()) {
             conn.getRealConnection().rollback();
           }
+          conn.closeStatementCache();
           conn.getRealConnection().close();
           if (log.isDebugEnabled()) {
             log.debug("Closed connection " + conn.getRealHashCode() + ".");
@@ -377,8 +417,11 @@ public class PooledDataSource implements DataSource {
         if (log.isDebugEnabled()) {
           log.debug("A bad connection (" + conn.getRealHashCode() + ") attempted to return to the pool, discarding connection.");
         }
+        conn.closeStatementCache();
         state.badConnectionCount++;
       }
+    } finally {
+      lock.unlock();
     }
   }
 
@@ -389,7 +432,8 @@ public class PooledDataSource implements DataSource {
     int localBadConnectionCount = 0;
 
     while (conn == null) {
-      synchronized (state) {
+      lock.lock();
+      try {
         if (!state.idleConnections.isEmpty()) {
           // Pool has available connection
           conn = state.idleConnections.remove(0);
@@ -433,6 +477,8 @@ public class PooledDataSource implements DataSource {
               conn.setCreatedTimestamp(oldestActiveConnection.getCreatedTimestamp());
               conn.setLastUsedTimestamp(oldestActiveConnection.getLastUsedTimestamp());
               oldestActiveConnection.invalidate();
+              // the overdue session may still hold the statements, do not share them with the new owner
+              oldestActiveConnection.closeStatementCache();
               if (log.isDebugEnabled()) {
                 log.debug("Claimed overdue connection " + conn.getRealHashCode() + ".");
               }
@@ -447,7 +493,7 @@ public class PooledDataSource implements DataSource {
                   log.debug("Waiting as long as " + poolTimeToWait + " milliseconds for connection.");
                 }
                 long wt = System.currentTimeMillis();
-                state.wait(poolTimeToWait);
+                condition.await(poolTimeToWait, TimeUnit.MILLISECONDS);
                 state.accumulatedWaitTime += System.currentTimeMillis() - wt;
               } catch (InterruptedException e) {
                 break;
@@ -471,6 +517,7 @@ public class PooledDataSource implements DataSource {
             if (log.isDebugEnabled()) {
               log.debug("A bad connection (" + conn.getRealHashCode() + ") was returned from the pool, getting another connection.");
             }
+            conn.closeStatementCache();
             state.badConnectionCount++;
             localBadConnectionCount++;
             conn = null;
@@ -482,6 +529,8 @@ public class PooledDataSource implements DataSource {
             }
           }
         }
+      } finally {
+        lock.unlock();
       }
 
     }
@@ -550,6 +599,23 @@ public class PooledDataSource implements DataSource {
     return result;
   }
 
+  /**
+   * Gets the statements cached with the 'real' connection of a pooled connection
+   *
+   * @param conn - the pooled connection
+   * @return The statement cache, or null if the connection is not a pooled connection
+   * @since 3.5.2
+   */
+  public static StatementCache getStatementCache(Connection conn) {
+    if (Proxy.isProxyClass(conn.getClass())) {
+      InvocationHandler handler = Proxy.getInvocationHandler(conn);
+      if (handler instanceof PooledConnection) {
+        return ((PooledConnection) handler).getStatementCache();
+      }
+    }
+    return null;
+  }
+
   /**
    * Unwraps a pooled connection to get to the 'real' connection
    *
@@ -0,0 +1,128 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Statements kept with a physical connection, keyed by their SQL, so that they outlive the sessions using it.
+ * Once the cache is full the least recently used statement is closed.
+ *
+ * @since 3.5.2
+ */
+public class StatementCache {
+
+  private final Lock lock = new ReentrantLock();
+  private final Map<String, Statement> statements;
+  private boolean closed;
+
+  public StatementCache(final int size) {
+    this.statements = new LinkedHashMap<String, Statement>(16, 0.75f, true) {
+      private static final long serialVersionUID = 7014519426128393427L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Statement> eldest) {
+        boolean tooBig = size() > size;
+        if (tooBig) {
+          closeStatement(eldest.getValue());
+        }
+        return tooBig;
+      }
+    };
+  }
+
+  /**
+   * Returns the statement cached for the sql, or null when there is none or it can no longer be used.
+   */
+  public Statement get(String sql) {
+    lock.lock();
+    try {
+      Statement stmt = statements.get(sql);
+      if (stmt != null && !isUsable(stmt)) {
+        statements.remove(sql);
+        closeStatement(stmt);
+        stmt = null;
+      }
+      return stmt;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void put(String sql, Statement stmt) {
+    lock.lock();
+    try {
+      if (closed) {
+        // the connection was taken away from the session that prepared this statement
+        closeStatement(stmt);
+        return;
+      }
+      Statement previous = statements.put(sql, stmt);
+      if (previous != null && previous != stmt) {
+        closeStatement(previous);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int size() {
+    lock.lock();
+    try {
+      return statements.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Closes all cached statements. Statements put afterwards are closed right away.
+   */
+  public void close() {
+    lock.lock();
+    try {
+      closed = true;
+      for (Statement stmt : statements.values()) {
+        closeStatement(stmt);
+      }
+      statements.clear();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean isUsable(Statement stmt) {
+    try {
+      return !stmt.isClosed() && !stmt.getConnection().isClosed();
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  private void closeStatement(Statement stmt) {
+    try {
+      stmt.close();
+    } catch (SQLException e) {
+      // ignore
+    }
+  }
+
+}
@@ -216,11 +216,14 @@ public abstract class BaseExecutor implements Executor {
         List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
         TypeHandlerRegistry typeHandlerRegistry = ms.getConfiguration().getTypeHandlerRegistry();
         // mimic DefaultParameterHandler logic
-        for (ParameterMapping parameterMapping : parameterMappings) {
+        for (int i = 0; i < parameterMappings.size(); i++) {
+            ParameterMapping parameterMapping = parameterMappings.get(i);
             if (parameterMapping.getMode() != ParameterMode.OUT) {
                 Object value;
                 String propertyName = parameterMapping.getProperty();
-                if (boundSql.hasAdditionalParameter(propertyName)) {
+                if (boundSql.hasParameterValue(i)) {
+                    value = boundSql.getParameterValue(i);
+                } else if (boundSql.hasAdditionalParameter(propertyName)) {
                     value = boundSql.getAdditionalParameter(propertyName);
                 } else if (parameterObject == null) {
                     value = null;
@@ -0,0 +1,128 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.datasource.pooled.StatementCache;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.Transaction;
+
+/**
+ * Reuses prepared statements like {@link ReuseExecutor}, but keeps them with the physical connection
+ * when it comes from a {@link PooledDataSource}, so that they survive commits and the end of the session.
+ * Other connections get a statement cache that lives until the statements are flushed.
+ * <p>
+ * Statements are shared by the mapped statements that prepare them the same way, the query timeout and fetch size
+ * of each execution are applied again when a statement is reused.
+ *
+ * @since 3.5.2
+ */
+public class ConnectionReuseExecutor extends BaseExecutor {
+
+  private static final int SESSION_STATEMENT_CACHE_SIZE = 50;
+
+  private StatementCache sessionStatementCache;
+
+  public ConnectionReuseExecutor(Configuration configuration, Transaction transaction) {
+    super(configuration, transaction);
+  }
+
+  @Override
+  public int doUpdate(MappedStatement ms, Object parameter) throws SQLException {
+    Configuration configuration = ms.getConfiguration();
+    StatementHandler handler = configuration.newStatementHandler(this, ms, parameter, RowBounds.DEFAULT, null, null);
+    Statement stmt = prepareStatement(ms, handler);
+    return handler.update(stmt);
+  }
+
+  @Override
+  public <E> List<E> doQuery(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
+    Configuration configuration = ms.getConfiguration();
+    StatementHandler handler = configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, resultHandler, boundSql);
+    Statement stmt = prepareStatement(ms, handler);
+    return handler.query(stmt, resultHandler);
+  }
+
+  @Override
+  protected <E> Cursor<E> doQueryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds, BoundSql boundSql) throws SQLException {
+    Configuration configuration = ms.getConfiguration();
+    StatementHandler handler = configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, null, boundSql);
+    Statement stmt = prepareStatement(ms, handler);
+    return handler.queryCursor(stmt);
+  }
+
+  @Override
+  public List<BatchResult> doFlushStatements(boolean isRollback) {
+    // statements cached with a pooled connection are closed by the pool
+    if (sessionStatementCache != null) {
+      sessionStatementCache.close();
+      sessionStatementCache = null;
+    }
+    return Collections.emptyList();
+  }
+
+  private Statement prepareStatement(MappedStatement ms, StatementHandler handler) throws SQLException {
+    String key = getStatementKey(ms, handler.getBoundSql().getSql());
+    StatementCache statementCache = getStatementCache();
+    Statement stmt = statementCache.get(key);
+    if (stmt != null) {
+      handler.reuse(stmt, transaction.getTimeout());
+    } else {
+      Connection connection = getConnection(ms.getStatementLog());
+      stmt = handler.prepare(connection, transaction.getTimeout());
+      statementCache.put(key, stmt);
+    }
+    handler.parameterize(stmt);
+    return stmt;
+  }
+
+  static String getStatementKey(MappedStatement ms, String sql) {
+    // everything a statement is prepared with besides its sql
+    StringBuilder key = new StringBuilder(sql.length() + 64);
+    key.append(ms.getStatementType()).append(':').append(ms.getResultSetType()).append(':');
+    if (ms.getKeyGenerator() instanceof Jdbc3KeyGenerator) {
+      key.append(ms.getKeyColumns() == null ? "GENERATED_KEYS" : Arrays.toString(ms.getKeyColumns()));
+    }
+    key.append(':').append(ms.getFetchSize()).append(':').append(ms.getTimeout()).append(':').append(sql);
+    return key.toString();
+  }
+
+  private StatementCache getStatementCache() throws SQLException {
+    StatementCache statementCache = PooledDataSource.getStatementCache(transaction.getConnection());
+    if (statementCache == null) {
+      if (sessionStatementCache == null) {
+        sessionStatementCache = new StatementCache(SESSION_STATEMENT_CACHE_SIZE);
+      }
+      statementCache = sessionStatementCache;
+    }
+    return statementCache;
+  }
+
+}
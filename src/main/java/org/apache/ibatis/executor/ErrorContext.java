@@ -15,6 +15,8 @@
  */
 package org.apache.ibatis.executor;
 
+import java.util.concurrent.Callable;
+
 /**
  * 用ThreadLocal保存Error信息
  * @author Clinton Begin
@@ -44,6 +46,28 @@ public class ErrorContext {
     return context;
   }
 
+  /**
+   * Wraps a task that runs on another thread on behalf of the current one. The task runs with a copy of the error
+   * context of the current thread, which is reset once the task is done.
+   *
+   * @since 3.5.2
+   */
+  public static <T> Callable<T> wrap(Callable<T> task) {
+    final ErrorContext current = instance();
+    final String resource = current.resource;
+    final String activity = current.activity;
+    final String object = current.object;
+    final String sql = current.sql;
+    return () -> {
+      instance().resource(resource).activity(activity).object(object).sql(sql);
+      try {
+        return task.call();
+      } finally {
+        instance().reset();
+      }
+    };
+  }
+
   public ErrorContext store() {
     ErrorContext newContext = new ErrorContext();
     newContext.stored = this;
@@ -0,0 +1,197 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * A {@link ResultLoader} that loads its result together with the other loaders of the same {@link Batch},
+ * executing the batch statement once for up to {@link Batch#getSize()} keys.
+ * <p>
+ * The single statement is kept so that the loader can still be used on its own when the batch statement
+ * cannot be executed (e.g. it is already being executed up in the stack).
+ *
+ * @since 3.5.2
+ */
+public class BatchResultLoader extends ResultLoader {
+
+  private final Batch batch;
+  private final Object batchKey;
+
+  public BatchResultLoader(Configuration config, Executor executor, MappedStatement mappedStatement, Object parameterObject,
+      Class<?> targetType, CacheKey cacheKey, BoundSql boundSql, Batch batch, Object batchKey) {
+    super(config, executor, mappedStatement, parameterObject, targetType, cacheKey, boundSql);
+    this.batch = batch;
+    this.batchKey = batchKey;
+    batch.add(this);
+  }
+
+  @Override
+  public Object loadResult() throws SQLException {
+    // siblings may be loaded from other threads, so always check under the batch lock
+    batch.load(this);
+    return resultObject;
+  }
+
+  private void loadSingle() throws SQLException {
+    super.loadResult();
+    loaded = true;
+  }
+
+  private boolean isBatchCached(MappedStatement ms, Object parameter) {
+    if (Thread.currentThread().getId() != creatorThreadId || executor.isClosed()) {
+      return false;
+    }
+    final BoundSql batchBoundSql = ms.getBoundSql(parameter);
+    final CacheKey key = executor.createCacheKey(ms, parameter, RowBounds.DEFAULT, batchBoundSql);
+    return executor.isCached(ms, key);
+  }
+
+  /**
+   * The loaders that share a batch statement. Loaders are added in the order the rows were read
+   * and are loaded in that order.
+   */
+  public static class Batch {
+
+    private final Configuration configuration;
+    private final MappedStatement mappedStatement;
+    private final String keyProperty;
+    private final int size;
+    private final List<BatchResultLoader> pendingLoaders = new ArrayList<>();
+    private final Lock lock = new ReentrantLock();
+
+    public Batch(Configuration configuration, MappedStatement mappedStatement, String keyProperty, int size) {
+      this.configuration = configuration;
+      this.mappedStatement = mappedStatement;
+      this.keyProperty = keyProperty;
+      this.size = size;
+    }
+
+    public MappedStatement getMappedStatement() {
+      return mappedStatement;
+    }
+
+    public String getKeyProperty() {
+      return keyProperty;
+    }
+
+    public int getSize() {
+      return size;
+    }
+
+    private void add(BatchResultLoader loader) {
+      lock.lock();
+      try {
+        pendingLoaders.add(loader);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void load(BatchResultLoader requester) throws SQLException {
+      lock.lock();
+      try {
+        if (requester.loaded) {
+          return;
+        }
+        final List<BatchResultLoader> loaders = nextLoaders(requester);
+        final Set<Object> keys = new LinkedHashSet<>();
+        for (BatchResultLoader loader : loaders) {
+          keys.add(loader.batchKey);
+        }
+        final List<Object> keyList = new ArrayList<>(keys);
+        final ParamMap<Object> parameter = new ParamMap<>();
+        parameter.put("collection", keyList);
+        parameter.put("list", keyList);
+        if (requester.isBatchCached(mappedStatement, parameter)) {
+          // the same keys are being loaded up in the stack, go one by one to let circular references resolve
+          for (BatchResultLoader loader : loaders) {
+            loader.loadSingle();
+          }
+          return;
+        }
+        final List<Object> rows = requester.selectList(mappedStatement, parameter, null, null);
+        final Map<Object, List<Object>> rowsByKey = new HashMap<>();
+        for (Object row : rows) {
+          final Object key = normalizeKey(configuration.newMetaObject(row).getValue(keyProperty));
+          rowsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+        }
+        for (BatchResultLoader loader : loaders) {
+          final List<Object> loaderRows = rowsByKey.get(normalizeKey(loader.batchKey));
+          final List<Object> list = loaderRows == null ? new ArrayList<>() : new ArrayList<>(loaderRows);
+          loader.resultObject = loader.resultExtractor.extractObjectFromList(list, loader.targetType);
+          loader.loaded = true;
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * Returns integral keys as {@link Long} and other decimal keys without trailing zeros, so that keys of the same
+     * value match whatever type they were read as, like the keys of map results.
+     */
+    private static Object normalizeKey(Object key) {
+      if (key instanceof Integer || key instanceof Long || key instanceof Short || key instanceof Byte) {
+        return ((Number) key).longValue();
+      }
+      if (key instanceof BigInteger || key instanceof BigDecimal) {
+        final BigDecimal decimal = key instanceof BigInteger ? new BigDecimal((BigInteger) key) : (BigDecimal) key;
+        try {
+          return decimal.longValueExact();
+        } catch (ArithmeticException e) {
+          return decimal.stripTrailingZeros();
+        }
+      }
+      return key;
+    }
+
+    private List<BatchResultLoader> nextLoaders(BatchResultLoader requester) {
+      final List<BatchResultLoader> loaders = new ArrayList<>();
+      loaders.add(requester);
+      pendingLoaders.remove(requester);
+      final Iterator<BatchResultLoader> iterator = pendingLoaders.iterator();
+      while (iterator.hasNext() && loaders.size() < size) {
+        final BatchResultLoader loader = iterator.next();
+        iterator.remove();
+        if (!loader.loaded) {
+          loaders.add(loader);
+        }
+      }
+      return loaders;
+    }
+  }
+
+}
@@ -73,12 +73,19 @@ public class ResultLoader {
   }
 
   private <E> List<E> selectList() throws SQLException {
+    return selectList(mappedStatement, parameterObject, cacheKey, boundSql);
+  }
+
+  protected <E> List<E> selectList(MappedStatement ms, Object parameter, CacheKey key, BoundSql sql) throws SQLException {
     Executor localExecutor = executor;
     if (Thread.currentThread().getId() != this.creatorThreadId || localExecutor.isClosed()) {
       localExecutor = newExecutor();
     }
     try {
-      return localExecutor.query(mappedStatement, parameterObject, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER, cacheKey, boundSql);
+      if (key == null) {
+        return localExecutor.query(ms, parameter, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+      }
+      return localExecutor.query(ms, parameter, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER, key, sql);
     } finally {
       if (localExecutor != executor) {
         localExecutor.close(false);
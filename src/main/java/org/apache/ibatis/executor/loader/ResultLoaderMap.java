@@ -27,6 +27,8 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.BaseExecutor;
@@ -48,6 +50,7 @@ import org.apache.ibatis.session.RowBounds;
 public class ResultLoaderMap {
 
   private final Map<String, LoadPair> loaderMap = new HashMap<>();
+  private final Lock lock = new ReentrantLock();
 
   public void addLoader(String property, MetaObject metaResultObject, ResultLoader resultLoader) {
     String upperFirst = getUppercaseFirstProperty(property);
@@ -59,6 +62,16 @@ public class ResultLoaderMap {
     loaderMap.put(upperFirst, new LoadPair(property, metaResultObject, resultLoader));
   }
 
+  /**
+   * Lock guarding lazy loading through this map. Loading runs queries while the lock is held,
+   * so a j.u.c lock is used instead of a monitor to keep virtual threads from pinning their carrier.
+   *
+   * @since 3.5.2
+   */
+  public Lock getLock() {
+    return lock;
+  }
+
   public final Map<String, LoadPair> getProperties() {
     return new HashMap<>(this.loaderMap);
   }
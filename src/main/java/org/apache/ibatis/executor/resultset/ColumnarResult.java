@@ -0,0 +1,397 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.io.Serializable;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * A whole result set held column by column, returned by statements with
+ * {@code resultType="org.apache.ibatis.executor.resultset.ColumnarResult"}.
+ * <p>
+ * {@code TINYINT}, {@code SMALLINT} and {@code INTEGER} columns are stored in an {@code int[]}, {@code BIGINT}
+ * columns in a {@code long[]} and {@code FLOAT}, {@code REAL} and {@code DOUBLE} columns in a {@code double[]},
+ * with a bit set marking the null values. These columns are read with the primitive getters of the result set, so
+ * no object is created for their values. {@code TIMESTAMP} columns are read as {@link Timestamp} objects that are
+ * not kept: their epoch milliseconds are stored in a {@code long[]} and their nanoseconds in an {@code int[]}.
+ * Other columns are read through the type handler of their JDBC type into an {@code Object[]}.
+ * <p>
+ * Rows and columns are numbered from 0. The result is serializable when the values of its object columns are.
+ *
+ * @since 3.5.2
+ */
+public class ColumnarResult implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final List<String> columnNames;
+  private final List<JdbcType> jdbcTypes;
+  private final Column[] columns;
+  private int rowCount;
+
+  ColumnarResult(ResultSetWrapper rsw) {
+    this.columnNames = Collections.unmodifiableList(new ArrayList<>(rsw.getColumnNames()));
+    this.jdbcTypes = Collections.unmodifiableList(new ArrayList<>(rsw.getJdbcTypes()));
+    this.columns = new Column[columnNames.size()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = newColumn(jdbcTypes.get(i), rsw.getTypeHandler(Object.class, columnNames.get(i)));
+    }
+  }
+
+  private static Column newColumn(JdbcType jdbcType, TypeHandler<?> typeHandler) {
+    if (jdbcType == null) {
+      return new ObjectColumn(typeHandler);
+    }
+    switch (jdbcType) {
+      case TINYINT:
+      case SMALLINT:
+      case INTEGER:
+        return new IntColumn();
+      case BIGINT:
+        return new LongColumn();
+      case TIMESTAMP:
+        return new TimestampColumn();
+      case FLOAT:
+      case REAL:
+      case DOUBLE:
+        return new DoubleColumn();
+      default:
+        return new ObjectColumn(typeHandler);
+    }
+  }
+
+  void addRow(ResultSet rs) throws SQLException {
+    for (int i = 0; i < columns.length; i++) {
+      columns[i].read(rs, i + 1, rowCount);
+    }
+    rowCount++;
+  }
+
+  void complete() {
+    for (Column column : columns) {
+      column.trim(rowCount);
+    }
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public int getColumnCount() {
+    return columns.length;
+  }
+
+  public List<String> getColumnNames() {
+    return columnNames;
+  }
+
+  /**
+   * @return the index of the first column with the given name, ignoring case, or -1 if there is none
+   */
+  public int getColumnIndex(String columnName) {
+    for (int i = 0; i < columnNames.size(); i++) {
+      if (columnNames.get(i).equalsIgnoreCase(columnName)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public JdbcType getJdbcType(int column) {
+    return jdbcTypes.get(column);
+  }
+
+  public boolean isNull(int row, int column) {
+    checkRow(row);
+    return columns[column].nulls.get(row);
+  }
+
+  /**
+   * @return the value, or 0 if it is null
+   */
+  public int getInt(int row, int column) {
+    checkRow(row);
+    return column(column, IntColumn.class, "int").values[row];
+  }
+
+  /**
+   * @return the value, or 0 if it is null
+   */
+  public long getLong(int row, int column) {
+    checkRow(row);
+    final Column target = columns[column];
+    if (target instanceof IntColumn) {
+      return ((IntColumn) target).values[row];
+    }
+    return column(column, LongColumn.class, "long").values[row];
+  }
+
+  /**
+   * @return the value, or 0 if it is null
+   */
+  public double getDouble(int row, int column) {
+    checkRow(row);
+    final Column target = columns[column];
+    if (target instanceof IntColumn) {
+      return ((IntColumn) target).values[row];
+    } else if (target instanceof LongColumn) {
+      return ((LongColumn) target).values[row];
+    }
+    return column(column, DoubleColumn.class, "double").values[row];
+  }
+
+  /**
+   * Gets a value of any column, boxing primitive values. Timestamps are returned as {@link Timestamp}.
+   *
+   * @return the value, or null if it is null
+   */
+  public Object getObject(int row, int column) {
+    checkRow(row);
+    return columns[column].nulls.get(row) ? null : columns[column].get(row);
+  }
+
+  /**
+   * @return the values of an {@code int} column, not to be modified
+   */
+  public int[] getIntColumn(int column) {
+    return column(column, IntColumn.class, "int").values;
+  }
+
+  /**
+   * @return the values of a {@code long} column, timestamps as epoch milliseconds, not to be modified
+   * @see #getNanosColumn(int)
+   */
+  public long[] getLongColumn(int column) {
+    return column(column, LongColumn.class, "long").values;
+  }
+
+  /**
+   * @return the nanoseconds of the values of a {@code TIMESTAMP} column, milliseconds included as in
+   *         {@link Timestamp#getNanos()}, not to be modified
+   */
+  public int[] getNanosColumn(int column) {
+    return column(column, TimestampColumn.class, "timestamp").nanos;
+  }
+
+  /**
+   * @return the values of a {@code double} column, not to be modified
+   */
+  public double[] getDoubleColumn(int column) {
+    return column(column, DoubleColumn.class, "double").values;
+  }
+
+  /**
+   * @return the values of a column read through its type handler, not to be modified
+   */
+  public Object[] getObjectColumn(int column) {
+    return column(column, ObjectColumn.class, "object").values;
+  }
+
+  /**
+   * @return a copy of the bits marking the null values of a column
+   */
+  public BitSet getNulls(int column) {
+    return (BitSet) columns[column].nulls.clone();
+  }
+
+  private void checkRow(int row) {
+    if (row < 0 || row >= rowCount) {
+      throw new IndexOutOfBoundsException("Row " + row + " is out of range, the result has " + rowCount + " rows");
+    }
+  }
+
+  private <T extends Column> T column(int column, Class<T> type, String valueType) {
+    final Column target = columns[column];
+    if (!type.isInstance(target)) {
+      throw new ExecutorException("Column '" + columnNames.get(column) + "' of type " + jdbcTypes.get(column)
+          + " cannot be read as " + valueType + " values.");
+    }
+    return type.cast(target);
+  }
+
+  private abstract static class Column implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    protected final BitSet nulls = new BitSet();
+
+    abstract void read(ResultSet rs, int columnIndex, int row) throws SQLException;
+
+    abstract Object get(int row);
+
+    abstract void trim(int rowCount);
+  }
+
+  private static final class IntColumn extends Column {
+    private static final long serialVersionUID = 1L;
+
+    private int[] values = new int[INITIAL_CAPACITY];
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      if (row == values.length) {
+        values = Arrays.copyOf(values, row * 2);
+      }
+      values[row] = rs.getInt(columnIndex);
+      if (rs.wasNull()) {
+        nulls.set(row);
+      }
+    }
+
+    @Override
+    Object get(int row) {
+      return values[row];
+    }
+
+    @Override
+    void trim(int rowCount) {
+      values = Arrays.copyOf(values, rowCount);
+    }
+  }
+
+  private static class LongColumn extends Column {
+    private static final long serialVersionUID = 1L;
+
+    protected long[] values = new long[INITIAL_CAPACITY];
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      if (row == values.length) {
+        values = Arrays.copyOf(values, row * 2);
+      }
+      values[row] = rs.getLong(columnIndex);
+      if (rs.wasNull()) {
+        nulls.set(row);
+      }
+    }
+
+    @Override
+    Object get(int row) {
+      return values[row];
+    }
+
+    @Override
+    void trim(int rowCount) {
+      values = Arrays.copyOf(values, rowCount);
+    }
+  }
+
+  private static final class TimestampColumn extends LongColumn {
+    private static final long serialVersionUID = 1L;
+
+    private int[] nanos = new int[INITIAL_CAPACITY];
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      if (row == values.length) {
+        values = Arrays.copyOf(values, row * 2);
+        nanos = Arrays.copyOf(nanos, row * 2);
+      }
+      final Timestamp timestamp = rs.getTimestamp(columnIndex);
+      if (timestamp == null) {
+        nulls.set(row);
+      } else {
+        values[row] = timestamp.getTime();
+        nanos[row] = timestamp.getNanos();
+      }
+    }
+
+    @Override
+    Object get(int row) {
+      final Timestamp timestamp = new Timestamp(values[row]);
+      timestamp.setNanos(nanos[row]);
+      return timestamp;
+    }
+
+    @Override
+    void trim(int rowCount) {
+      super.trim(rowCount);
+      nanos = Arrays.copyOf(nanos, rowCount);
+    }
+  }
+
+  private static final class DoubleColumn extends Column {
+    private static final long serialVersionUID = 1L;
+
+    private double[] values = new double[INITIAL_CAPACITY];
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      if (row == values.length) {
+        values = Arrays.copyOf(values, row * 2);
+      }
+      values[row] = rs.getDouble(columnIndex);
+      if (rs.wasNull()) {
+        nulls.set(row);
+      }
+    }
+
+    @Override
+    Object get(int row) {
+      return values[row];
+    }
+
+    @Override
+    void trim(int rowCount) {
+      values = Arrays.copyOf(values, rowCount);
+    }
+  }
+
+  private static final class ObjectColumn extends Column {
+    private static final long serialVersionUID = 1L;
+
+    // only used while the rows are read
+    private final transient TypeHandler<?> typeHandler;
+    private Object[] values = new Object[INITIAL_CAPACITY];
+
+    ObjectColumn(TypeHandler<?> typeHandler) {
+      this.typeHandler = typeHandler;
+    }
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      if (row == values.length) {
+        values = Arrays.copyOf(values, row * 2);
+      }
+      values[row] = typeHandler.getResult(rs, columnIndex);
+      if (values[row] == null) {
+        nulls.set(row);
+      }
+    }
+
+    @Override
+    Object get(int row) {
+      return values[row];
+    }
+
+    @Override
+    void trim(int rowCount) {
+      values = Arrays.copyOf(values, rowCount);
+    }
+  }
+
+}
@@ -0,0 +1,125 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Maps the rows of a simple result map with columns, type handlers and setters that were resolved
+ * for the columns of one result set. A row is read by column index and written through the setter
+ * invokers, without creating a MetaObject.
+ *
+ * @since 3.5.2
+ */
+class CompiledRowMapper {
+
+  private final Class<?> type;
+  private final ObjectFactory objectFactory;
+  private final boolean callSettersOnNulls;
+  private final boolean returnInstanceForEmptyRow;
+  private final Step[] steps;
+
+  static class Step {
+    private final int columnIndex;
+    private final TypeHandler<?> typeHandler;
+    private final String property;
+    private final Invoker setter;
+    private final boolean primitive;
+
+    Step(int columnIndex, TypeHandler<?> typeHandler, String property, Invoker setter, boolean primitive) {
+      this.columnIndex = columnIndex;
+      this.typeHandler = typeHandler;
+      this.property = property;
+      this.setter = setter;
+      this.primitive = primitive;
+    }
+  }
+
+  CompiledRowMapper(Class<?> type, ObjectFactory objectFactory, boolean callSettersOnNulls, boolean returnInstanceForEmptyRow, List<Step> steps) {
+    this.type = type;
+    this.objectFactory = objectFactory;
+    this.callSettersOnNulls = callSettersOnNulls;
+    this.returnInstanceForEmptyRow = returnInstanceForEmptyRow;
+    this.steps = steps.toArray(new Step[0]);
+  }
+
+  Object map(ResultSet rs) throws SQLException {
+    final Object rowValue = objectFactory.create(type);
+    boolean foundValues = false;
+    for (Step step : steps) {
+      final Object value = step.typeHandler.getResult(rs, step.columnIndex);
+      if (value != null) {
+        foundValues = true;
+      }
+      if (value != null || (callSettersOnNulls && !step.primitive)) {
+        setValue(rowValue, step, value);
+      }
+    }
+    return foundValues || returnInstanceForEmptyRow ? rowValue : null;
+  }
+
+  /**
+   * Reads the columns of the current row, to be turned into a result object by {@link #populate(Object[])}
+   * on another thread.
+   */
+  Object[] read(ResultSet rs) throws SQLException {
+    final Object[] values = new Object[steps.length];
+    for (int i = 0; i < steps.length; i++) {
+      values[i] = steps[i].typeHandler.getResult(rs, steps[i].columnIndex);
+    }
+    return values;
+  }
+
+  Object populate(Object[] values) {
+    final Object rowValue = objectFactory.create(type);
+    boolean foundValues = false;
+    for (int i = 0; i < steps.length; i++) {
+      final Step step = steps[i];
+      final Object value = values[i];
+      if (value != null) {
+        foundValues = true;
+      }
+      if (value != null || (callSettersOnNulls && !step.primitive)) {
+        setValue(rowValue, step, value);
+      }
+    }
+    return foundValues || returnInstanceForEmptyRow ? rowValue : null;
+  }
+
+  Object[] populate(List<Object[]> rows) {
+    final Object[] rowValues = new Object[rows.size()];
+    for (int i = 0; i < rowValues.length; i++) {
+      rowValues[i] = populate(rows.get(i));
+    }
+    return rowValues;
+  }
+
+  private void setValue(Object rowValue, Step step, Object value) {
+    try {
+      step.setter.invoke(rowValue, new Object[] { value });
+    } catch (Throwable t) {
+      throw new ReflectionException("Could not set property '" + step.property + "' of '" + rowValue.getClass() + "' with value '" + value + "' Cause: " + t.toString(), t);
+    }
+  }
+
+}
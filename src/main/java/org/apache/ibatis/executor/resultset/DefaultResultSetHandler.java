@@ -15,27 +15,45 @@
  */
 package org.apache.ibatis.executor.resultset;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.sql.CallableStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import org.apache.ibatis.annotations.AutomapConstructor;
 import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.cursor.defaults.DefaultCursor;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.loader.BatchResultLoader;
 import org.apache.ibatis.executor.loader.ResultLoader;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
@@ -51,8 +69,12 @@ import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultMapping;
 import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
 import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultContext;
@@ -84,17 +106,46 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final ReflectorFactory reflectorFactory;
 
   // nested resultmaps
-  private final Map<CacheKey, Object> nestedResultObjects = new HashMap<>();
+  private final Map<Object, Object> nestedResultObjects = new HashMap<>();
   private final Map<String, Object> ancestorObjects = new HashMap<>();
   private Object previousRowValue;
+  // cursors hand over each parent once its rows are complete, as if the statement was resultOrdered
+  private boolean groupNestedResults;
+
+  // reusable row keys of each nesting level, when compact nested row keys are enabled
+  private final List<NestedRowKey> nestedRowKeys = new ArrayList<>();
+  private int nestedLevel;
 
   // multiple resultsets
   private final Map<String, ResultMapping> nextResultMaps = new HashMap<>();
   private final Map<CacheKey, List<PendingRelation>> pendingRelations = new HashMap<>();
 
+  // batched nested queries, by result mapping identity since mappings of the same property are equal
+  private final Map<ResultMapping, NestedQueryBatch> nestedQueryBatches = new IdentityHashMap<>();
+  private boolean batchNestedQueries;
+
+  // objects of flat results are created on the result mapping executor, see handleRowValuesInParallel
+  private boolean mapRowsInParallel;
+
+  // rows read, for the adaptive fetch size
+  private int rowCount;
+
   // Cached Automappings
   private final Map<String, List<UnMappedColumnAutoMapping>> autoMappingsCache = new HashMap<>();
 
+  // compiled row mappers of the current result set
+  private final Map<ResultMap, CompiledRowMapper> compiledRowMappers = new HashMap<>();
+  private final Set<ResultMap> notCompilableResultMaps = new HashSet<>();
+
+  // constructors resolved by column signature for the current result set
+  private final Map<ResultMap, ConstructorAutoMapping> constructorAutoMappings = new HashMap<>();
+
+  // result maps resolved on the row path without looking them up by id
+  private final Map<ResultMap, Map<Object, ResultMap>> discriminatedResultMaps = new HashMap<>();
+  private final List<ResultMap> pastDiscriminatedResultMaps = new ArrayList<>();
+  // by identity, result mappings are equal when their properties are
+  private final Map<ResultMapping, ResultMap> nestedResultMaps = new IdentityHashMap<>();
+
   // temporary marking flag that indicate using constructor mapping (use field to reduce memory usage)
   private boolean useConstructorMappings;
 
@@ -103,20 +154,67 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     public ResultMapping propertyMapping;
   }
 
+  private static class NestedQueryBatch {
+    public MappedStatement batchQuery;
+    public String keyProperty;
+    public TypeHandler<?> keyTypeHandler;
+    public BatchResultLoader.Batch batch;
+    public int batchLoaderCount;
+    public final List<PendingNestedQuery> pendingQueries = new ArrayList<>();
+  }
+
+  private static class PendingNestedQuery {
+    public MetaObject metaObject;
+    public String property;
+    public ResultLoader resultLoader;
+  }
+
   private static class UnMappedColumnAutoMapping {
     private final String column;
+    private final int columnIndex;
     private final String property;
     private final TypeHandler<?> typeHandler;
     private final boolean primitive;
 
-    public UnMappedColumnAutoMapping(String column, String property, TypeHandler<?> typeHandler, boolean primitive) {
+    public UnMappedColumnAutoMapping(String column, int columnIndex, String property, TypeHandler<?> typeHandler, boolean primitive) {
       this.column = column;
+      this.columnIndex = columnIndex;
       this.property = property;
       this.typeHandler = typeHandler;
       this.primitive = primitive;
     }
   }
 
+  private static class ConstructorAutoMapping {
+    private final List<Class<?>> parameterTypes;
+    private final TypeHandler<?>[] typeHandlers;
+    // (Object[])Object handle invoking the constructor, null when it cannot be accessed directly
+    private final MethodHandle factory;
+
+    public ConstructorAutoMapping(ResultSetWrapper rsw, Constructor<?> constructor) {
+      final Class<?>[] types = constructor.getParameterTypes();
+      this.parameterTypes = Collections.unmodifiableList(Arrays.asList(types));
+      this.typeHandlers = new TypeHandler<?>[types.length];
+      for (int i = 0; i < types.length; i++) {
+        typeHandlers[i] = rsw.getTypeHandler(types[i], rsw.getColumnNames().get(i));
+      }
+      this.factory = unreflectConstructor(constructor);
+    }
+
+    private static MethodHandle unreflectConstructor(Constructor<?> constructor) {
+      try {
+        if (Reflector.canControlMemberAccessible()) {
+          constructor.setAccessible(true);
+        }
+        return MethodHandles.lookup().unreflectConstructor(constructor)
+            .asSpreader(Object[].class, constructor.getParameterCount())
+            .asType(MethodType.methodType(Object.class, Object[].class));
+      } catch (IllegalAccessException | RuntimeException e) {
+        return null;
+      }
+    }
+  }
+
   public DefaultResultSetHandler(Executor executor, MappedStatement mappedStatement, ParameterHandler parameterHandler, ResultHandler<?> resultHandler, BoundSql boundSql,
                                  RowBounds rowBounds) {
     this.executor = executor;
@@ -182,6 +280,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     ErrorContext.instance().activity("handling results").object(mappedStatement.getId());
 
     final List<Object> multipleResults = new ArrayList<>();
+    // results are only complete when returned, so nested queries can wait for their batch
+    batchNestedQueries = resultHandler == null;
+    mapRowsInParallel = configuration.isParallelResultMappingEnabled();
 
     int resultSetCount = 0;
     ResultSetWrapper rsw = getFirstResultSet(stmt);
@@ -212,6 +313,12 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       }
     }
 
+    flushNestedQueryBatches();
+    batchNestedQueries = false;
+    mapRowsInParallel = false;
+    if (configuration.isAdaptiveFetchSizeEnabled()) {
+      mappedStatement.getRowCountStatistics().record(rowCount);
+    }
     return collapseSingleResultList(multipleResults);
   }
 
@@ -230,6 +337,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
 
     ResultMap resultMap = resultMaps.get(0);
+    if (ColumnarResult.class.equals(resultMap.getType())) {
+      throw new ExecutorException("Cursor results cannot be mapped to a ColumnarResult");
+    }
+    groupNestedResults = true;
     return new DefaultCursor<>(this, resultMap, rsw, rowBounds);
   }
 
@@ -282,6 +393,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private void cleanUpAfterHandlingResultSet() {
     nestedResultObjects.clear();
+    // auto mappings hold column indexes of the result set just handled
+    autoMappingsCache.clear();
+    compiledRowMappers.clear();
+    notCompilableResultMaps.clear();
+    constructorAutoMappings.clear();
   }
 
   private void validateResultMapsCount(ResultSetWrapper rsw, int resultMapCount) {
@@ -320,7 +436,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   //
 
   public void handleRowValues(ResultSetWrapper rsw, ResultMap resultMap, ResultHandler<?> resultHandler, RowBounds rowBounds, ResultMapping parentMapping) throws SQLException {
-    if (resultMap.hasNestedResultMaps()) {
+    if (ColumnarResult.class.equals(resultMap.getType())) {
+      handleRowValuesForColumnarResult(rsw, resultHandler, rowBounds, parentMapping);
+    } else if (resultMap.hasNestedResultMaps()) {
       ensureNoRowBounds();
       checkResultHandler();
       handleRowValuesForNestedResultMap(rsw, resultMap, resultHandler, rowBounds, parentMapping);
@@ -344,18 +462,144 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  private void handleRowValuesForColumnarResult(ResultSetWrapper rsw, ResultHandler<?> resultHandler, RowBounds rowBounds, ResultMapping parentMapping)
+      throws SQLException {
+    DefaultResultContext<Object> resultContext = new DefaultResultContext<>();
+    ResultSet resultSet = rsw.getResultSet();
+    ColumnarResult columnarResult = new ColumnarResult(rsw);
+    skipRows(resultSet, rowBounds);
+    while (columnarResult.getRowCount() < rowBounds.getLimit() && !resultSet.isClosed() && resultSet.next()) {
+      rowCount++;
+      columnarResult.addRow(resultSet);
+    }
+    columnarResult.complete();
+    storeObject(resultHandler, resultContext, columnarResult, parentMapping, resultSet);
+  }
+
   private void handleRowValuesForSimpleResultMap(ResultSetWrapper rsw, ResultMap resultMap, ResultHandler<?> resultHandler, RowBounds rowBounds, ResultMapping parentMapping)
       throws SQLException {
+    if (mapRowsInParallel && parentMapping == null && resultMap.getDiscriminator() == null) {
+      final CompiledRowMapper rowMapper = getCompiledRowMapper(rsw, resultMap);
+      if (rowMapper != null) {
+        handleRowValuesInParallel(rsw, rowMapper, resultHandler, rowBounds);
+        return;
+      }
+    }
     DefaultResultContext<Object> resultContext = new DefaultResultContext<>();
     ResultSet resultSet = rsw.getResultSet();
     skipRows(resultSet, rowBounds);
     while (shouldProcessMoreRows(resultContext, rowBounds) && !resultSet.isClosed() && resultSet.next()) {
+      rowCount++;
       ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
       Object rowValue = getRowValue(rsw, discriminatedResultMap, null);
       storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
     }
   }
 
+  private void handleRowValuesInParallel(ResultSetWrapper rsw, CompiledRowMapper rowMapper, ResultHandler<?> resultHandler, RowBounds rowBounds)
+      throws SQLException {
+    DefaultResultContext<Object> resultContext = new DefaultResultContext<>();
+    ResultSet resultSet = rsw.getResultSet();
+    // the result set is only read on this thread, the executor creates and populates the objects
+    final ExecutorService executor = getParallelResultMappingExecutor();
+    final int parallelism = executor instanceof ForkJoinPool ? ((ForkJoinPool) executor).getParallelism() : Runtime.getRuntime().availableProcessors();
+    final int batchSize = Math.max(1, configuration.getParallelResultMappingBatchSize());
+    final Deque<Future<Object[]>> mappedBatches = new ArrayDeque<>();
+    try {
+      skipRows(resultSet, rowBounds);
+      int rowsRead = 0;
+      List<Object[]> rows = new ArrayList<>();
+      while (rowsRead < rowBounds.getLimit() && !resultSet.isClosed() && resultSet.next()) {
+        rowsRead++;
+        rows.add(rowMapper.read(resultSet));
+        if (rows.size() == batchSize) {
+          final List<Object[]> batch = rows;
+          mappedBatches.add(executor.submit(onBehalfOfThisThread(() -> rowMapper.populate(batch))));
+          rows = new ArrayList<>();
+          if (mappedBatches.size() > parallelism) {
+            storeBatch(resultHandler, resultContext, getMappedBatch(mappedBatches.poll()));
+            if (resultContext.isStopped()) {
+              // the rows read ahead are dropped with their batches
+              return;
+            }
+          }
+        }
+      }
+      // the last rows are mapped here while the pool finishes the other batches
+      final Object[] lastRowValues = rowMapper.populate(rows);
+      while (!mappedBatches.isEmpty() && !resultContext.isStopped()) {
+        storeBatch(resultHandler, resultContext, getMappedBatch(mappedBatches.poll()));
+      }
+      storeBatch(resultHandler, resultContext, lastRowValues);
+    } finally {
+      for (Future<Object[]> mappedBatch : mappedBatches) {
+        mappedBatch.cancel(false);
+      }
+    }
+  }
+
+  private ExecutorService getParallelResultMappingExecutor() {
+    final ExecutorService executor = configuration.getParallelResultMappingExecutor();
+    return executor != null ? executor : ResultMappingPool.INSTANCE;
+  }
+
+  private static <T> Callable<T> onBehalfOfThisThread(Callable<T> task) {
+    // user code runs with the error context and the context class loader of the thread mapping the results
+    final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    final Callable<T> errorContextTask = ErrorContext.wrap(task);
+    return () -> {
+      final Thread thread = Thread.currentThread();
+      final ClassLoader previousClassLoader = thread.getContextClassLoader();
+      thread.setContextClassLoader(classLoader);
+      try {
+        return errorContextTask.call();
+      } finally {
+        thread.setContextClassLoader(previousClassLoader);
+      }
+    };
+  }
+
+  private static Object[] getMappedBatch(Future<Object[]> mappedBatch) {
+    try {
+      return mappedBatch.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ExecutorException("Interrupted while waiting for rows mapped in parallel.", e);
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new ExecutorException("Error mapping rows in parallel. Cause: " + cause, cause);
+    }
+  }
+
+  /**
+   * The executor of parallel result mapping when the configuration has none, created on first use. Its threads are
+   * daemons, so that it does not have to be shut down.
+   */
+  private static final class ResultMappingPool {
+    static final ForkJoinPool INSTANCE = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+      final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+      thread.setName("mybatis-result-mapping-" + thread.getPoolIndex());
+      return thread;
+    }, null, false);
+
+    private ResultMappingPool() {
+      // Prevent Instantiation
+    }
+  }
+
+  private void storeBatch(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Object[] rowValues) {
+    // only the rows handed to the result handler are counted, not the ones read ahead
+    for (int i = 0; i < rowValues.length && !resultContext.isStopped(); i++) {
+      rowCount++;
+      callResultHandler(resultHandler, resultContext, rowValues[i]);
+    }
+  }
+
   private void storeObject(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Object rowValue, ResultMapping parentMapping, ResultSet rs) throws SQLException {
     if (parentMapping != null) {
       linkToParents(rs, parentMapping, rowValue);
@@ -393,6 +637,12 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   //
 
   private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
+    if (columnPrefix == null && configuration.isCompiledRowMappingEnabled()) {
+      final CompiledRowMapper rowMapper = getCompiledRowMapper(rsw, resultMap);
+      if (rowMapper != null) {
+        return rowMapper.map(rsw.getResultSet());
+      }
+    }
     final ResultLoaderMap lazyLoader = new ResultLoaderMap();
     Object rowValue = createResultObject(rsw, resultMap, lazyLoader, columnPrefix);
     if (rowValue != null && !hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
@@ -408,6 +658,73 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return rowValue;
   }
 
+  //
+  // COMPILED ROW MAPPERS
+  //
+
+  private CompiledRowMapper getCompiledRowMapper(ResultSetWrapper rsw, ResultMap resultMap) throws SQLException {
+    CompiledRowMapper rowMapper = compiledRowMappers.get(resultMap);
+    if (rowMapper == null && !notCompilableResultMaps.contains(resultMap)) {
+      rowMapper = compileRowMapper(rsw, resultMap);
+      if (rowMapper == null) {
+        notCompilableResultMaps.add(resultMap);
+      } else {
+        compiledRowMappers.put(resultMap, rowMapper);
+      }
+    }
+    return rowMapper;
+  }
+
+  private CompiledRowMapper compileRowMapper(ResultSetWrapper rsw, ResultMap resultMap) throws SQLException {
+    // only plain beans filled through setters, anything else goes through MetaObject
+    final Class<?> resultType = resultMap.getType();
+    if (resultType.isInterface() || resultType.isArray() || Map.class.isAssignableFrom(resultType) || Collection.class.isAssignableFrom(resultType)
+        || !resultMap.getConstructorResultMappings().isEmpty() || hasTypeHandlerForResultObject(rsw, resultType)
+        || !(configuration.getObjectWrapperFactory() instanceof DefaultObjectWrapperFactory)) {
+      return null;
+    }
+    final MetaClass metaType = MetaClass.forClass(resultType, reflectorFactory);
+    if (!metaType.hasDefaultConstructor()) {
+      return null;
+    }
+    final List<CompiledRowMapper.Step> steps = new ArrayList<>();
+    if (shouldApplyAutomaticMappings(resultMap, false)) {
+      final MetaObject metaObject = configuration.newMetaObject(objectFactory.create(resultType));
+      for (UnMappedColumnAutoMapping mapping : createAutomaticMappings(rsw, resultMap, metaObject, null)) {
+        final CompiledRowMapper.Step step = compileStep(rsw, metaType, mapping.column, mapping.property, mapping.typeHandler);
+        if (step == null) {
+          return null;
+        }
+        steps.add(step);
+      }
+    }
+    final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, null);
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      if (propertyMapping.getNestedQueryId() != null || propertyMapping.getNestedResultMapId() != null
+          || propertyMapping.getResultSet() != null || propertyMapping.isCompositeResult()) {
+        return null;
+      }
+      final String column = propertyMapping.getColumn();
+      if (propertyMapping.getProperty() == null || column == null || !mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
+        continue;
+      }
+      final CompiledRowMapper.Step step = compileStep(rsw, metaType, column, propertyMapping.getProperty(), propertyMapping.getTypeHandler());
+      if (step == null) {
+        return null;
+      }
+      steps.add(step);
+    }
+    return new CompiledRowMapper(resultType, objectFactory, configuration.isCallSettersOnNulls(), configuration.isReturnInstanceForEmptyRow(), steps);
+  }
+
+  private CompiledRowMapper.Step compileStep(ResultSetWrapper rsw, MetaClass metaType, String column, String property, TypeHandler<?> typeHandler) {
+    final int columnIndex = rsw.getColumnIndex(column);
+    if (columnIndex < 0 || typeHandler == null || property.indexOf('.') >= 0 || property.indexOf('[') >= 0 || !metaType.hasSetter(property)) {
+      return null;
+    }
+    return new CompiledRowMapper.Step(columnIndex, typeHandler, property, metaType.getSetInvoker(property), metaType.getSetterType(property).isPrimitive());
+  }
+
   private boolean shouldApplyAutomaticMappings(ResultMap resultMap, boolean isNested) {
     if (resultMap.getAutoMapping() != null) {
       return resultMap.getAutoMapping();
@@ -427,18 +744,25 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private boolean applyPropertyMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, ResultLoaderMap lazyLoader, String columnPrefix)
       throws SQLException {
     final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
+    // plain columns are read by index, resolved once per result set
+    final int[] columnIndexes = rsw.getPropertyMappingColumnIndexes(resultMap, columnPrefix);
     boolean foundValues = false;
     final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
-    for (ResultMapping propertyMapping : propertyMappings) {
+    for (int i = 0; i < propertyMappings.size(); i++) {
+      final ResultMapping propertyMapping = propertyMappings.get(i);
+      final int columnIndex = columnIndexes[i];
       String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
       if (propertyMapping.getNestedResultMapId() != null) {
         // the user added a column attribute to a nested result map, ignore it
         column = null;
       }
-      if (propertyMapping.isCompositeResult()
+      if (columnIndex > 0
+          || propertyMapping.isCompositeResult()
           || (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH)))
           || propertyMapping.getResultSet() != null) {
-        Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, lazyLoader, columnPrefix);
+        Object value = columnIndex > 0
+            ? propertyMapping.getTypeHandler().getResult(rsw.getResultSet(), columnIndex)
+            : getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, lazyLoader, columnPrefix);
         // issue #541 make property optional
         final String property = propertyMapping.getProperty();
         if (property == null) {
@@ -477,40 +801,73 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     final String mapKey = resultMap.getId() + ":" + columnPrefix;
     List<UnMappedColumnAutoMapping> autoMapping = autoMappingsCache.get(mapKey);
     if (autoMapping == null) {
-      autoMapping = new ArrayList<>();
-      final List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
-      for (String columnName : unmappedColumnNames) {
-        String propertyName = columnName;
-        if (columnPrefix != null && !columnPrefix.isEmpty()) {
-          // When columnPrefix is specified,
-          // ignore columns without the prefix.
-          if (columnName.toUpperCase(Locale.ENGLISH).startsWith(columnPrefix)) {
-            propertyName = columnName.substring(columnPrefix.length());
-          } else {
-            continue;
-          }
+      // plans are shared across executions returning the same columns
+      final Cache sharedCache = configuration.getAutoMappingCache();
+      final CacheKey sharedKey = sharedCache == null ? null : createAutoMappingCacheKey(rsw, resultMap, columnPrefix);
+      if (sharedCache != null) {
+        autoMapping = getSharedAutomaticMappings(sharedCache, sharedKey);
+      }
+      if (autoMapping == null) {
+        autoMapping = buildAutomaticMappings(rsw, resultMap, metaObject, columnPrefix);
+        if (sharedCache != null) {
+          sharedCache.putObject(sharedKey, autoMapping);
         }
-        final String property = metaObject.findProperty(propertyName, configuration.isMapUnderscoreToCamelCase());
-        if (property != null && metaObject.hasSetter(property)) {
-          if (resultMap.getMappedProperties().contains(property)) {
-            continue;
-          }
-          final Class<?> propertyType = metaObject.getSetterType(property);
-          if (typeHandlerRegistry.hasTypeHandler(propertyType, rsw.getJdbcType(columnName))) {
-            final TypeHandler<?> typeHandler = rsw.getTypeHandler(propertyType, columnName);
-            autoMapping.add(new UnMappedColumnAutoMapping(columnName, property, typeHandler, propertyType.isPrimitive()));
-          } else {
-            configuration.getAutoMappingUnknownColumnBehavior()
-                .doAction(mappedStatement, columnName, property, propertyType);
-          }
+      }
+      autoMappingsCache.put(mapKey, autoMapping);
+    }
+    return autoMapping;
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<UnMappedColumnAutoMapping> getSharedAutomaticMappings(Cache sharedCache, CacheKey sharedKey) {
+    return (List<UnMappedColumnAutoMapping>) sharedCache.getObject(sharedKey);
+  }
+
+  private CacheKey createAutoMappingCacheKey(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) {
+    final CacheKey cacheKey = new CacheKey();
+    cacheKey.update(mappedStatement.getId());
+    cacheKey.update(resultMap.getId());
+    cacheKey.update(columnPrefix);
+    cacheKey.update(configuration.isMapUnderscoreToCamelCase());
+    cacheKey.update(rsw.getColumnNames());
+    cacheKey.update(rsw.getJdbcTypes());
+    cacheKey.update(rsw.getClassNames());
+    return cacheKey;
+  }
+
+  private List<UnMappedColumnAutoMapping> buildAutomaticMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix) throws SQLException {
+    final List<UnMappedColumnAutoMapping> autoMapping = new ArrayList<>();
+    final List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
+    for (String columnName : unmappedColumnNames) {
+      String propertyName = columnName;
+      if (columnPrefix != null && !columnPrefix.isEmpty()) {
+        // When columnPrefix is specified,
+        // ignore columns without the prefix.
+        if (columnName.toUpperCase(Locale.ENGLISH).startsWith(columnPrefix)) {
+          propertyName = columnName.substring(columnPrefix.length());
+        } else {
+          continue;
+        }
+      }
+      final String property = metaObject.findProperty(propertyName, configuration.isMapUnderscoreToCamelCase());
+      if (property != null && metaObject.hasSetter(property)) {
+        if (resultMap.getMappedProperties().contains(property)) {
+          continue;
+        }
+        final Class<?> propertyType = metaObject.getSetterType(property);
+        if (typeHandlerRegistry.hasTypeHandler(propertyType, rsw.getJdbcType(columnName))) {
+          final TypeHandler<?> typeHandler = rsw.getTypeHandler(propertyType, columnName);
+          autoMapping.add(new UnMappedColumnAutoMapping(columnName, rsw.getColumnIndex(columnName), property, typeHandler, propertyType.isPrimitive()));
         } else {
           configuration.getAutoMappingUnknownColumnBehavior()
-              .doAction(mappedStatement, columnName, (property != null) ? property : propertyName, null);
+              .doAction(mappedStatement, columnName, property, propertyType);
         }
+      } else {
+        configuration.getAutoMappingUnknownColumnBehavior()
+            .doAction(mappedStatement, columnName, (property != null) ? property : propertyName, null);
       }
-      autoMappingsCache.put(mapKey, autoMapping);
     }
-    return autoMapping;
+    return Collections.unmodifiableList(autoMapping);
   }
 
   private boolean applyAutomaticMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix) throws SQLException {
@@ -518,7 +875,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     boolean foundValues = false;
     if (!autoMapping.isEmpty()) {
       for (UnMappedColumnAutoMapping mapping : autoMapping) {
-        final Object value = mapping.typeHandler.getResult(rsw.getResultSet(), mapping.column);
+        final Object value = mapping.typeHandler.getResult(rsw.getResultSet(), mapping.columnIndex);
         if (value != null) {
           foundValues = true;
         }
@@ -612,10 +969,12 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       return createPrimitiveResultObject(rsw, resultMap, columnPrefix);
     } else if (!constructorMappings.isEmpty()) {
       return createParameterizedResultObject(rsw, resultType, constructorMappings, constructorArgTypes, constructorArgs, columnPrefix);
+    } else if (resultType == Map.class && configuration.isCompactMapRowsEnabled()) {
+      return new RowMap(rsw.getRowMapColumns());
     } else if (resultType.isInterface() || metaType.hasDefaultConstructor()) {
       return objectFactory.create(resultType);
     } else if (shouldApplyAutomaticMappings(resultMap, false)) {
-      return createByConstructorSignature(rsw, resultType, constructorArgTypes, constructorArgs);
+      return createByConstructorSignature(rsw, resultMap, constructorArgTypes, constructorArgs);
     }
     throw new ExecutorException("Do not know how to create an instance of " + resultType);
   }
@@ -631,7 +990,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         if (constructorMapping.getNestedQueryId() != null) {
           value = getNestedQueryConstructorValue(rsw.getResultSet(), constructorMapping, columnPrefix);
         } else if (constructorMapping.getNestedResultMapId() != null) {
-          final ResultMap resultMap = configuration.getResultMap(constructorMapping.getNestedResultMapId());
+          final ResultMap resultMap = getNestedResultMap(constructorMapping);
           value = getRowValue(rsw, resultMap, getColumnPrefix(columnPrefix, constructorMapping));
         } else {
           final TypeHandler<?> typeHandler = constructorMapping.getTypeHandler();
@@ -647,33 +1006,69 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return foundValues ? objectFactory.create(resultType, constructorArgTypes, constructorArgs) : null;
   }
 
-  private Object createByConstructorSignature(ResultSetWrapper rsw, Class<?> resultType, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) throws SQLException {
+  private Object createByConstructorSignature(ResultSetWrapper rsw, ResultMap resultMap, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) throws SQLException {
+    final ConstructorAutoMapping constructorAutoMapping = getConstructorAutoMapping(rsw, resultMap);
+    final TypeHandler<?>[] typeHandlers = constructorAutoMapping.typeHandlers;
+    boolean foundValues = false;
+    for (int i = 0; i < typeHandlers.length; i++) {
+      Object value = typeHandlers[i].getResult(rsw.getResultSet(), i + 1);
+      constructorArgs.add(value);
+      foundValues = value != null || foundValues;
+    }
+    constructorArgTypes.addAll(constructorAutoMapping.parameterTypes);
+    return foundValues ? createUsingConstructor(resultMap.getType(), constructorAutoMapping, constructorArgTypes, constructorArgs) : null;
+  }
+
+  private ConstructorAutoMapping getConstructorAutoMapping(ResultSetWrapper rsw, ResultMap resultMap) {
+    ConstructorAutoMapping constructorAutoMapping = constructorAutoMappings.get(resultMap);
+    if (constructorAutoMapping == null) {
+      // resolved constructors are shared across executions returning the same columns
+      final Cache sharedCache = configuration.getAutoMappingCache();
+      CacheKey sharedKey = null;
+      if (sharedCache != null) {
+        sharedKey = createAutoMappingCacheKey(rsw, resultMap, null);
+        sharedKey.update(Constructor.class.getName());
+        constructorAutoMapping = (ConstructorAutoMapping) sharedCache.getObject(sharedKey);
+      }
+      if (constructorAutoMapping == null) {
+        constructorAutoMapping = resolveConstructorAutoMapping(rsw, resultMap.getType());
+        if (sharedCache != null) {
+          sharedCache.putObject(sharedKey, constructorAutoMapping);
+        }
+      }
+      constructorAutoMappings.put(resultMap, constructorAutoMapping);
+    }
+    return constructorAutoMapping;
+  }
+
+  private ConstructorAutoMapping resolveConstructorAutoMapping(ResultSetWrapper rsw, Class<?> resultType) {
     final Constructor<?>[] constructors = resultType.getDeclaredConstructors();
     final Constructor<?> defaultConstructor = findDefaultConstructor(constructors);
     if (defaultConstructor != null) {
-      return createUsingConstructor(rsw, resultType, constructorArgTypes, constructorArgs, defaultConstructor);
+      return new ConstructorAutoMapping(rsw, defaultConstructor);
     } else {
       for (Constructor<?> constructor : constructors) {
         if (allowedConstructorUsingTypeHandlers(constructor, rsw.getJdbcTypes())) {
-          return createUsingConstructor(rsw, resultType, constructorArgTypes, constructorArgs, constructor);
+          return new ConstructorAutoMapping(rsw, constructor);
         }
       }
     }
     throw new ExecutorException("No constructor found in " + resultType.getName() + " matching " + rsw.getClassNames());
   }
 
-  private Object createUsingConstructor(ResultSetWrapper rsw, Class<?> resultType, List<Class<?>> constructorArgTypes, List<Object> constructorArgs, Constructor<?> constructor) throws SQLException {
-    boolean foundValues = false;
-    for (int i = 0; i < constructor.getParameterTypes().length; i++) {
-      Class<?> parameterType = constructor.getParameterTypes()[i];
-      String columnName = rsw.getColumnNames().get(i);
-      TypeHandler<?> typeHandler = rsw.getTypeHandler(parameterType, columnName);
-      Object value = typeHandler.getResult(rsw.getResultSet(), columnName);
-      constructorArgTypes.add(parameterType);
-      constructorArgs.add(value);
-      foundValues = value != null || foundValues;
+  private Object createUsingConstructor(Class<?> resultType, ConstructorAutoMapping constructorAutoMapping, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+    if (constructorAutoMapping.factory == null || objectFactory.getClass() != DefaultObjectFactory.class) {
+      return objectFactory.create(resultType, constructorArgTypes, constructorArgs);
+    }
+    try {
+      return (Object) constructorAutoMapping.factory.invokeExact(constructorArgs.toArray());
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new ReflectionException("Error instantiating " + resultType + " with invalid types ("
+          + constructorArgTypes.stream().map(Class::getSimpleName).collect(Collectors.joining(",")) + ") or values ("
+          + constructorArgs.stream().map(String::valueOf).collect(Collectors.joining(",")) + "). Cause: " + e, e);
     }
-    return foundValues ? objectFactory.create(resultType, constructorArgTypes, constructorArgs) : null;
   }
 
   private Constructor<?> findDefaultConstructor(final Constructor<?>[] constructors) {
@@ -752,10 +1147,18 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         executor.deferLoad(nestedQuery, metaResultObject, property, key, targetType);
         value = DEFERRED;
       } else {
-        final ResultLoader resultLoader = new ResultLoader(configuration, executor, nestedQuery, nestedQueryParameterObject, targetType, key, nestedBoundSql);
+        final ResultLoader resultLoader;
+        if (propertyMapping.getNestedBatchQueryId() != null && (propertyMapping.isLazy() || batchNestedQueries)) {
+          resultLoader = newBatchResultLoader(rs, propertyMapping, nestedQuery, nestedQueryParameterObject, key, nestedBoundSql, columnPrefix);
+        } else {
+          resultLoader = new ResultLoader(configuration, executor, nestedQuery, nestedQueryParameterObject, targetType, key, nestedBoundSql);
+        }
         if (propertyMapping.isLazy()) {
           lazyLoader.addLoader(property, metaResultObject, resultLoader);
           value = DEFERRED;
+        } else if (resultLoader instanceof BatchResultLoader) {
+          addPendingNestedQuery(metaResultObject, propertyMapping, resultLoader);
+          value = DEFERRED;
         } else {
           value = resultLoader.loadResult();
         }
@@ -764,6 +1167,83 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return value;
   }
 
+  private BatchResultLoader newBatchResultLoader(ResultSet rs, ResultMapping propertyMapping, MappedStatement nestedQuery, Object nestedQueryParameterObject,
+      CacheKey key, BoundSql nestedBoundSql, String columnPrefix) throws SQLException {
+    final NestedQueryBatch nestedQueryBatch = getNestedQueryBatch(propertyMapping);
+    final int batchSize = configuration.getNestedSelectBatchSize();
+    if (nestedQueryBatch.batch == null || nestedQueryBatch.batchLoaderCount >= batchSize) {
+      // siblings are grouped by batch size so a lazy load never pulls in more than that
+      nestedQueryBatch.batch = new BatchResultLoader.Batch(configuration, nestedQueryBatch.batchQuery, nestedQueryBatch.keyProperty, batchSize);
+      nestedQueryBatch.batchLoaderCount = 0;
+    }
+    nestedQueryBatch.batchLoaderCount++;
+    Object batchKey = nestedQueryParameterObject;
+    if (nestedQueryBatch.keyTypeHandler != null) {
+      // read the key as the batch results hold it so both sides compare equal
+      batchKey = nestedQueryBatch.keyTypeHandler.getResult(rs, prependPrefix(propertyMapping.getColumn(), columnPrefix));
+    }
+    return new BatchResultLoader(configuration, executor, nestedQuery, nestedQueryParameterObject, propertyMapping.getJavaType(),
+        key, nestedBoundSql, nestedQueryBatch.batch, batchKey);
+  }
+
+  private void addPendingNestedQuery(MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoader resultLoader) throws SQLException {
+    final NestedQueryBatch nestedQueryBatch = getNestedQueryBatch(propertyMapping);
+    final PendingNestedQuery pendingQuery = new PendingNestedQuery();
+    pendingQuery.metaObject = metaResultObject;
+    pendingQuery.property = propertyMapping.getProperty();
+    pendingQuery.resultLoader = resultLoader;
+    nestedQueryBatch.pendingQueries.add(pendingQuery);
+    if (nestedQueryBatch.pendingQueries.size() >= configuration.getNestedSelectBatchSize()) {
+      flushNestedQueryBatch(nestedQueryBatch);
+    }
+  }
+
+  private NestedQueryBatch getNestedQueryBatch(ResultMapping propertyMapping) {
+    NestedQueryBatch nestedQueryBatch = nestedQueryBatches.get(propertyMapping);
+    if (nestedQueryBatch == null) {
+      nestedQueryBatch = new NestedQueryBatch();
+      nestedQueryBatch.batchQuery = configuration.getMappedStatement(propertyMapping.getNestedBatchQueryId());
+      nestedQueryBatch.keyProperty = propertyMapping.getBatchKeyProperty();
+      nestedQueryBatch.keyTypeHandler = resolveBatchKeyTypeHandler(nestedQueryBatch.batchQuery, nestedQueryBatch.keyProperty);
+      nestedQueryBatches.put(propertyMapping, nestedQueryBatch);
+    }
+    return nestedQueryBatch;
+  }
+
+  private TypeHandler<?> resolveBatchKeyTypeHandler(MappedStatement batchQuery, String keyProperty) {
+    final Class<?> resultType = batchQuery.getResultMaps().get(0).getType();
+    if (!Map.class.isAssignableFrom(resultType)) {
+      final MetaClass metaClass = MetaClass.forClass(resultType, reflectorFactory);
+      if (metaClass.hasGetter(keyProperty)) {
+        final Class<?> keyType = metaClass.getGetterType(keyProperty);
+        if (typeHandlerRegistry.hasTypeHandler(keyType)) {
+          return typeHandlerRegistry.getTypeHandler(keyType);
+        }
+      }
+    }
+    // the batch matches numeric keys of the same value whatever type they were read as
+    return null;
+  }
+
+  private void flushNestedQueryBatches() throws SQLException {
+    for (NestedQueryBatch nestedQueryBatch : nestedQueryBatches.values()) {
+      flushNestedQueryBatch(nestedQueryBatch);
+    }
+    nestedQueryBatches.clear();
+  }
+
+  private void flushNestedQueryBatch(NestedQueryBatch nestedQueryBatch) throws SQLException {
+    for (PendingNestedQuery pendingQuery : nestedQueryBatch.pendingQueries) {
+      final Object value = pendingQuery.resultLoader.loadResult();
+      final MetaObject metaObject = pendingQuery.metaObject;
+      final String property = pendingQuery.property;
+      if (value != null || (configuration.isCallSettersOnNulls() && !metaObject.getSetterType(property).isPrimitive())) {
+        metaObject.setValue(property, value);
+      }
+    }
+    nestedQueryBatch.pendingQueries.clear();
+  }
+
   private Object prepareParameterForNestedQuery(ResultSet rs, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
     if (resultMapping.isCompositeResult()) {
       return prepareCompositeKeyParameter(rs, resultMapping, parameterType, columnPrefix);
@@ -814,18 +1294,23 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   //
 
   public ResultMap resolveDiscriminatedResultMap(ResultSet rs, ResultMap resultMap, String columnPrefix) throws SQLException {
-    Set<String> pastDiscriminators = new HashSet<>();
     Discriminator discriminator = resultMap.getDiscriminator();
+    if (discriminator == null) {
+      return resultMap;
+    }
+    final List<ResultMap> pastDiscriminators = pastDiscriminatedResultMaps;
+    pastDiscriminators.clear();
     while (discriminator != null) {
       final Object value = getDiscriminatorValue(rs, discriminator, columnPrefix);
-      final String discriminatedMapId = discriminator.getMapIdFor(String.valueOf(value));
-      if (configuration.hasResultMap(discriminatedMapId)) {
-        resultMap = configuration.getResultMap(discriminatedMapId);
+      final ResultMap discriminatedResultMap = getDiscriminatedResultMap(resultMap, discriminator, value);
+      if (discriminatedResultMap != null) {
+        resultMap = discriminatedResultMap;
         Discriminator lastDiscriminator = discriminator;
         discriminator = resultMap.getDiscriminator();
-        if (discriminator == lastDiscriminator || !pastDiscriminators.add(discriminatedMapId)) {
+        if (discriminator == lastDiscriminator || pastDiscriminators.contains(resultMap)) {
           break;
         }
+        pastDiscriminators.add(resultMap);
       } else {
         break;
       }
@@ -833,6 +1318,25 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return resultMap;
   }
 
+  private ResultMap getDiscriminatedResultMap(ResultMap resultMap, Discriminator discriminator, Object value) {
+    if (value != null && value.getClass().isArray()) {
+      // arrays are not usable as keys
+      return findDiscriminatedResultMap(discriminator, value);
+    }
+    final Map<Object, ResultMap> resultMapsByValue = discriminatedResultMaps.computeIfAbsent(resultMap, k -> new HashMap<>());
+    ResultMap discriminatedResultMap = resultMapsByValue.get(value);
+    if (discriminatedResultMap == null && !resultMapsByValue.containsKey(value)) {
+      discriminatedResultMap = findDiscriminatedResultMap(discriminator, value);
+      resultMapsByValue.put(value, discriminatedResultMap);
+    }
+    return discriminatedResultMap;
+  }
+
+  private ResultMap findDiscriminatedResultMap(Discriminator discriminator, Object value) {
+    final String discriminatedMapId = discriminator.getMapIdFor(String.valueOf(value));
+    return configuration.hasResultMap(discriminatedMapId) ? configuration.getResultMap(discriminatedMapId) : null;
+  }
+
   private Object getDiscriminatorValue(ResultSet rs, Discriminator discriminator, String columnPrefix) throws SQLException {
     final ResultMapping resultMapping = discriminator.getResultMapping();
     final TypeHandler<?> typeHandler = resultMapping.getTypeHandler();
@@ -855,13 +1359,16 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     ResultSet resultSet = rsw.getResultSet();
     skipRows(resultSet, rowBounds);
     Object rowValue = previousRowValue;
+    final boolean resultOrdered = mappedStatement.isResultOrdered() || groupNestedResults;
     while (shouldProcessMoreRows(resultContext, rowBounds) && !resultSet.isClosed() && resultSet.next()) {
+      rowCount++;
       final ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
-      final CacheKey rowKey = createRowKey(discriminatedResultMap, rsw, null);
+      final Object rowKey = createRowKey(discriminatedResultMap, rsw, null);
       Object partialObject = nestedResultObjects.get(rowKey);
       // issue #577 && #542
-      if (mappedStatement.isResultOrdered()) {
+      if (resultOrdered) {
         if (partialObject == null && rowValue != null) {
+          // the previous parent is complete, its nested objects are no longer needed
           nestedResultObjects.clear();
           storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
         }
@@ -873,7 +1380,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
     }
-    if (rowValue != null && mappedStatement.isResultOrdered() && shouldProcessMoreRows(resultContext, rowBounds)) {
+    if (rowValue != null && resultOrdered && shouldProcessMoreRows(resultContext, rowBounds)) {
+      nestedResultObjects.clear();
       storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
       previousRowValue = null;
     } else if (rowValue != null) {
@@ -885,7 +1393,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // GET VALUE FROM ROW FOR NESTED RESULT MAP
   //
 
-  private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, CacheKey combinedKey, String columnPrefix, Object partialObject) throws SQLException {
+  private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, Object combinedKey, String columnPrefix, Object partialObject) throws SQLException {
     final String resultMapId = resultMap.getId();
     Object rowValue = partialObject;
     if (rowValue != null) {
@@ -910,7 +1418,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         rowValue = foundValues || configuration.isReturnInstanceForEmptyRow() ? rowValue : null;
       }
       if (combinedKey != CacheKey.NULL_CACHE_KEY) {
-        nestedResultObjects.put(combinedKey, rowValue);
+        // reusable keys are copied only when a new object is stored
+        nestedResultObjects.put(combinedKey instanceof NestedRowKey ? ((NestedRowKey) combinedKey).copy() : combinedKey, rowValue);
       }
     }
     return rowValue;
@@ -924,41 +1433,46 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // NESTED RESULT MAP (JOIN MAPPING)
   //
 
-  private boolean applyNestedResultMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String parentPrefix, CacheKey parentRowKey, boolean newObject) {
+  private boolean applyNestedResultMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String parentPrefix, Object parentRowKey, boolean newObject) {
     boolean foundValues = false;
-    for (ResultMapping resultMapping : resultMap.getPropertyResultMappings()) {
-      final String nestedResultMapId = resultMapping.getNestedResultMapId();
-      if (nestedResultMapId != null && resultMapping.getResultSet() == null) {
-        try {
-          final String columnPrefix = getColumnPrefix(parentPrefix, resultMapping);
-          final ResultMap nestedResultMap = getNestedResultMap(rsw.getResultSet(), nestedResultMapId, columnPrefix);
-          if (resultMapping.getColumnPrefix() == null) {
-            // try to fill circular reference only when columnPrefix
-            // is not specified for the nested result map (issue #215)
-            Object ancestorObject = ancestorObjects.get(nestedResultMapId);
-            if (ancestorObject != null) {
-              if (newObject) {
-                linkObjects(metaObject, resultMapping, ancestorObject); // issue #385
+    nestedLevel++;
+    try {
+      for (ResultMapping resultMapping : resultMap.getPropertyResultMappings()) {
+        final String nestedResultMapId = resultMapping.getNestedResultMapId();
+        if (nestedResultMapId != null && resultMapping.getResultSet() == null) {
+          try {
+            final String columnPrefix = getColumnPrefix(parentPrefix, resultMapping);
+            final ResultMap nestedResultMap = resolveDiscriminatedResultMap(rsw.getResultSet(), getNestedResultMap(resultMapping), columnPrefix);
+            if (resultMapping.getColumnPrefix() == null) {
+              // try to fill circular reference only when columnPrefix
+              // is not specified for the nested result map (issue #215)
+              Object ancestorObject = ancestorObjects.get(nestedResultMapId);
+              if (ancestorObject != null) {
+                if (newObject) {
+                  linkObjects(metaObject, resultMapping, ancestorObject); // issue #385
+                }
+                continue;
               }
-              continue;
             }
-          }
-          final CacheKey rowKey = createRowKey(nestedResultMap, rsw, columnPrefix);
-          final CacheKey combinedKey = combineKeys(rowKey, parentRowKey);
-          Object rowValue = nestedResultObjects.get(combinedKey);
-          boolean knownValue = rowValue != null;
-          instantiateCollectionPropertyIfAppropriate(resultMapping, metaObject); // mandatory
-          if (anyNotNullColumnHasValue(resultMapping, columnPrefix, rsw)) {
-            rowValue = getRowValue(rsw, nestedResultMap, combinedKey, columnPrefix, rowValue);
-            if (rowValue != null && !knownValue) {
-              linkObjects(metaObject, resultMapping, rowValue);
-              foundValues = true;
+            final Object rowKey = createRowKey(nestedResultMap, rsw, columnPrefix);
+            final Object combinedKey = combineKeys(rowKey, parentRowKey);
+            Object rowValue = nestedResultObjects.get(combinedKey);
+            boolean knownValue = rowValue != null;
+            instantiateCollectionPropertyIfAppropriate(resultMapping, metaObject); // mandatory
+            if (anyNotNullColumnHasValue(resultMapping, columnPrefix, rsw)) {
+              rowValue = getRowValue(rsw, nestedResultMap, combinedKey, columnPrefix, rowValue);
+              if (rowValue != null && !knownValue) {
+                linkObjects(metaObject, resultMapping, rowValue);
+                foundValues = true;
+              }
             }
+          } catch (SQLException e) {
+            throw new ExecutorException("Error getting nested result map values for '" + resultMapping.getProperty() + "'.  Cause: " + e, e);
           }
-        } catch (SQLException e) {
-          throw new ExecutorException("Error getting nested result map values for '" + resultMapping.getProperty() + "'.  Cause: " + e, e);
         }
       }
+    } finally {
+      nestedLevel--;
     }
     return foundValues;
   }
@@ -996,32 +1510,64 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return true;
   }
 
-  private ResultMap getNestedResultMap(ResultSet rs, String nestedResultMapId, String columnPrefix) throws SQLException {
-    ResultMap nestedResultMap = configuration.getResultMap(nestedResultMapId);
-    return resolveDiscriminatedResultMap(rs, nestedResultMap, columnPrefix);
+  private ResultMap getNestedResultMap(ResultMapping resultMapping) {
+    return nestedResultMaps.computeIfAbsent(resultMapping, k -> configuration.getResultMap(k.getNestedResultMapId()));
   }
 
   //
   // UNIQUE RESULT KEY
   //
 
-  private CacheKey createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
-    final CacheKey cacheKey = new CacheKey();
-    cacheKey.update(resultMap.getId());
+  private Object createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
+    final Object rowKey;
+    if (configuration.isCompactNestedRowKeysEnabled()) {
+      rowKey = getNestedRowKey().reset(resultMap.getId());
+    } else {
+      final CacheKey cacheKey = new CacheKey();
+      cacheKey.update(resultMap.getId());
+      rowKey = cacheKey;
+    }
     List<ResultMapping> resultMappings = getResultMappingsForRowKey(resultMap);
     if (resultMappings.isEmpty()) {
       if (Map.class.isAssignableFrom(resultMap.getType())) {
-        createRowKeyForMap(rsw, cacheKey);
+        createRowKeyForMap(rsw, rowKey);
       } else {
-        createRowKeyForUnmappedProperties(resultMap, rsw, cacheKey, columnPrefix);
+        createRowKeyForUnmappedProperties(resultMap, rsw, rowKey, columnPrefix);
       }
     } else {
-      createRowKeyForMappedProperties(resultMap, rsw, cacheKey, resultMappings, columnPrefix);
+      createRowKeyForMappedProperties(resultMap, rsw, rowKey, resultMappings, columnPrefix);
     }
-    if (cacheKey.getUpdateCount() < 2) {
+    if (rowKey instanceof NestedRowKey ? ((NestedRowKey) rowKey).isEmpty() : ((CacheKey) rowKey).getUpdateCount() < 2) {
       return CacheKey.NULL_CACHE_KEY;
     }
-    return cacheKey;
+    return rowKey;
+  }
+
+  private NestedRowKey getNestedRowKey() {
+    while (nestedRowKeys.size() <= nestedLevel) {
+      nestedRowKeys.add(new NestedRowKey());
+    }
+    return nestedRowKeys.get(nestedLevel);
+  }
+
+  private void updateRowKey(Object rowKey, String column, Object value) {
+    if (rowKey instanceof NestedRowKey) {
+      ((NestedRowKey) rowKey).update(column, value);
+    } else {
+      final CacheKey cacheKey = (CacheKey) rowKey;
+      cacheKey.update(column);
+      cacheKey.update(value);
+    }
+  }
+
+  private Object combineKeys(Object rowKey, Object parentRowKey) {
+    if (rowKey instanceof NestedRowKey || parentRowKey instanceof NestedRowKey) {
+      if (rowKey == CacheKey.NULL_CACHE_KEY || parentRowKey == CacheKey.NULL_CACHE_KEY) {
+        return CacheKey.NULL_CACHE_KEY;
+      }
+      return ((NestedRowKey) rowKey).combine((NestedRowKey) parentRowKey);
+    }
+    return combineKeys((CacheKey) rowKey, (CacheKey) parentRowKey);
   }
 
   private CacheKey combineKeys(CacheKey rowKey, CacheKey parentRowKey) {
@@ -1046,12 +1592,12 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return resultMappings;
   }
 
-  private void createRowKeyForMappedProperties(ResultMap resultMap, ResultSetWrapper rsw, CacheKey cacheKey, List<ResultMapping> resultMappings, String columnPrefix) throws SQLException {
+  private void createRowKeyForMappedProperties(ResultMap resultMap, ResultSetWrapper rsw, Object rowKey, List<ResultMapping> resultMappings, String columnPrefix) throws SQLException {
     for (ResultMapping resultMapping : resultMappings) {
       if (resultMapping.getNestedResultMapId() != null && resultMapping.getResultSet() == null) {
         // Issue #392
-        final ResultMap nestedResultMap = configuration.getResultMap(resultMapping.getNestedResultMapId());
-        createRowKeyForMappedProperties(nestedResultMap, rsw, cacheKey, nestedResultMap.getConstructorResultMappings(),
+        final ResultMap nestedResultMap = getNestedResultMap(resultMapping);
+        createRowKeyForMappedProperties(nestedResultMap, rsw, rowKey, nestedResultMap.getConstructorResultMappings(),
             prependPrefix(resultMapping.getColumnPrefix(), columnPrefix));
       } else if (resultMapping.getNestedQueryId() == null) {
         final String column = prependPrefix(resultMapping.getColumn(), columnPrefix);
@@ -1061,15 +1607,14 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         if (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
           final Object value = th.getResult(rsw.getResultSet(), column);
           if (value != null || configuration.isReturnInstanceForEmptyRow()) {
-            cacheKey.update(column);
-            cacheKey.update(value);
+            updateRowKey(rowKey, column, value);
           }
         }
       }
     }
   }
 
-  private void createRowKeyForUnmappedProperties(ResultMap resultMap, ResultSetWrapper rsw, CacheKey cacheKey, String columnPrefix) throws SQLException {
+  private void createRowKeyForUnmappedProperties(ResultMap resultMap, ResultSetWrapper rsw, Object rowKey, String columnPrefix) throws SQLException {
     final MetaClass metaType = MetaClass.forClass(resultMap.getType(), reflectorFactory);
     List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
     for (String column : unmappedColumnNames) {
@@ -1085,20 +1630,18 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       if (metaType.findProperty(property, configuration.isMapUnderscoreToCamelCase()) != null) {
         String value = rsw.getResultSet().getString(column);
         if (value != null) {
-          cacheKey.update(column);
-          cacheKey.update(value);
+          updateRowKey(rowKey, column, value);
         }
       }
     }
   }
 
-  private void createRowKeyForMap(ResultSetWrapper rsw, CacheKey cacheKey) throws SQLException {
+  private void createRowKeyForMap(ResultSetWrapper rsw, Object rowKey) throws SQLException {
     List<String> columnNames = rsw.getColumnNames();
     for (String columnName : columnNames) {
       final String value = rsw.getResultSet().getString(columnName);
       if (value != null) {
-        cacheKey.update(columnName);
-        cacheKey.update(value);
+        updateRowKey(rowKey, columnName, value);
       }
     }
   }
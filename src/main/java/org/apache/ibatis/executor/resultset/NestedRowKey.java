@@ -0,0 +1,128 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.util.Arrays;
+
+import org.apache.ibatis.reflection.ArrayUtil;
+
+/**
+ * Identity of a row of a nested result map, used instead of a {@link org.apache.ibatis.cache.CacheKey}
+ * when compact nested row keys are enabled. Keys hold the key columns and values of the row and a link
+ * to the key of the parent row, so combining a key with its parent copies nothing. The handler keeps
+ * one key per nesting level and refills it for every row; a copy is made only when a new object is stored.
+ *
+ * @since 3.5.2
+ */
+final class NestedRowKey {
+
+  private String resultMapId;
+  private NestedRowKey parent;
+  private Object[] entries;
+  private int size;
+  private int hashCode;
+  private NestedRowKey snapshot;
+
+  NestedRowKey() {
+    this.entries = new Object[8];
+  }
+
+  private NestedRowKey(NestedRowKey key) {
+    this.resultMapId = key.resultMapId;
+    this.parent = key.parent == null ? null : key.parent.copy();
+    this.entries = Arrays.copyOf(key.entries, key.size);
+    this.size = key.size;
+    this.hashCode = key.hashCode;
+  }
+
+  NestedRowKey reset(String resultMapId) {
+    this.resultMapId = resultMapId;
+    this.parent = null;
+    this.size = 0;
+    this.hashCode = resultMapId.hashCode();
+    this.snapshot = null;
+    return this;
+  }
+
+  void update(String column, Object value) {
+    if (size + 2 > entries.length) {
+      entries = Arrays.copyOf(entries, entries.length * 2);
+    }
+    entries[size++] = column;
+    entries[size++] = value;
+    hashCode = 31 * (31 * hashCode + column.hashCode()) + (value == null ? 1 : ArrayUtil.hashCode(value));
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  NestedRowKey combine(NestedRowKey parentKey) {
+    this.parent = parentKey;
+    this.hashCode = 31 * hashCode + parentKey.hashCode;
+    this.snapshot = null;
+    return this;
+  }
+
+  /**
+   * Gets an immutable copy of this key, shared by all the objects stored for the current row.
+   */
+  NestedRowKey copy() {
+    if (snapshot == null) {
+      snapshot = new NestedRowKey(this);
+      snapshot.snapshot = snapshot;
+    }
+    return snapshot;
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (this == object) {
+      return true;
+    }
+    if (!(object instanceof NestedRowKey)) {
+      return false;
+    }
+    final NestedRowKey that = (NestedRowKey) object;
+    if (hashCode != that.hashCode || size != that.size || !resultMapId.equals(that.resultMapId)) {
+      return false;
+    }
+    for (int i = 0; i < size; i++) {
+      if (!ArrayUtil.equals(entries[i], that.entries[i])) {
+        return false;
+      }
+    }
+    return parent == null ? that.parent == null : parent.equals(that.parent);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder(resultMapId);
+    for (int i = 0; i < size; i++) {
+      builder.append(':').append(ArrayUtil.toString(entries[i]));
+    }
+    if (parent != null) {
+      builder.append('/').append(parent);
+    }
+    return builder.toString();
+  }
+
+}
@@ -28,6 +28,7 @@ import java.util.Map;
 import java.util.Set;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.ObjectTypeHandler;
@@ -45,9 +46,12 @@ public class ResultSetWrapper {
   private final List<String> columnNames = new ArrayList<>();
   private final List<String> classNames = new ArrayList<>();
   private final List<JdbcType> jdbcTypes = new ArrayList<>();
+  private final Map<String, Integer> columnIndexMap = new HashMap<>();
   private final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new HashMap<>();
   private final Map<String, List<String>> mappedColumnNamesMap = new HashMap<>();
   private final Map<String, List<String>> unMappedColumnNamesMap = new HashMap<>();
+  private final Map<String, int[]> propertyMappingColumnIndexesMap = new HashMap<>();
+  private RowMap.Columns rowMapColumns;
 
   public ResultSetWrapper(ResultSet rs, Configuration configuration) throws SQLException {
     super();
@@ -59,6 +63,10 @@ public class ResultSetWrapper {
       columnNames.add(configuration.isUseColumnLabel() ? metaData.getColumnLabel(i) : metaData.getColumnName(i));
       jdbcTypes.add(JdbcType.forCode(metaData.getColumnType(i)));
       classNames.add(metaData.getColumnClassName(i));
+      final String columnName = columnNames.get(i - 1);
+      if (columnName != null) {
+        columnIndexMap.putIfAbsent(columnName.toUpperCase(Locale.ENGLISH), i);
+      }
     }
   }
 
@@ -78,6 +86,27 @@ public class ResultSetWrapper {
     return jdbcTypes;
   }
 
+  /**
+   * Gets the index of the first column with the given name.
+   *
+   * @param columnName
+   * @return the 1-based column index, or -1 if the result set has no such column
+   */
+  public int getColumnIndex(String columnName) {
+    Integer columnIndex = columnIndexMap.get(columnName.toUpperCase(Locale.ENGLISH));
+    return columnIndex == null ? -1 : columnIndex;
+  }
+
+  /**
+   * Gets the column dictionary shared by the {@link RowMap} rows of this result set.
+   */
+  RowMap.Columns getRowMapColumns() {
+    if (rowMapColumns == null) {
+      rowMapColumns = new RowMap.Columns(columnNames);
+    }
+    return rowMapColumns;
+  }
+
   public JdbcType getJdbcType(String columnName) {
     for (int i = 0 ; i < columnNames.size(); i++) {
       if (columnNames.get(i).equalsIgnoreCase(columnName)) {
@@ -176,6 +205,41 @@ public class ResultSetWrapper {
     return unMappedColumnNames;
   }
 
+  /**
+   * Gets the column indexes of the property mappings of a result map, in the order of
+   * {@link ResultMap#getPropertyResultMappings()}, so that rows can be read by index instead of by label.
+   *
+   * @param resultMap
+   * @param columnPrefix
+   * @return the 1-based column index of each mapping, or -1 for mappings that are not a plain column of this result set
+   *         (nested queries, nested result maps, composite columns, other result sets or missing columns)
+   * @throws SQLException
+   */
+  public int[] getPropertyMappingColumnIndexes(ResultMap resultMap, String columnPrefix) throws SQLException {
+    final String mapKey = getMapKey(resultMap, columnPrefix);
+    int[] columnIndexes = propertyMappingColumnIndexesMap.get(mapKey);
+    if (columnIndexes == null) {
+      final List<String> mappedColumnNames = getMappedColumnNames(resultMap, columnPrefix);
+      final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
+      columnIndexes = new int[propertyMappings.size()];
+      for (int i = 0; i < columnIndexes.length; i++) {
+        final ResultMapping propertyMapping = propertyMappings.get(i);
+        columnIndexes[i] = -1;
+        if (propertyMapping.getColumn() == null || propertyMapping.getNestedQueryId() != null
+            || propertyMapping.getNestedResultMapId() != null || propertyMapping.getResultSet() != null
+            || propertyMapping.isCompositeResult()) {
+          continue;
+        }
+        final String column = columnPrefix == null ? propertyMapping.getColumn() : columnPrefix + propertyMapping.getColumn();
+        if (mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
+          columnIndexes[i] = getColumnIndex(column);
+        }
+      }
+      propertyMappingColumnIndexesMap.put(mapKey, columnIndexes);
+    }
+    return columnIndexes;
+  }
+
   private String getMapKey(ResultMap resultMap, String columnPrefix) {
     return resultMap.getId() + ":" + columnPrefix;
   }
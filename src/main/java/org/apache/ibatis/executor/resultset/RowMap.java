@@ -0,0 +1,218 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A row of a {@code resultType="map"} statement, created instead of a {@link HashMap} when compact map rows are
+ * enabled. The values of the columns are kept in an array and the column names in a dictionary shared by all the
+ * rows of the result set, so a row does not repeat the keys and hash table of a {@link HashMap}. Other keys are
+ * kept in a separate map. Entries are iterated in column order.
+ *
+ * @since 3.5.2
+ */
+public class RowMap extends AbstractMap<String, Object> implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final Columns columns;
+  private final Object[] values;
+  private int size;
+  private Map<String, Object> others;
+
+  /**
+   * The column names of a result set and their position in the rows.
+   */
+  static final class Columns implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String[] names;
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    Columns(List<String> columnNames) {
+      this.names = columnNames.toArray(new String[0]);
+      for (int i = 0; i < names.length; i++) {
+        indexes.putIfAbsent(names[i], i);
+      }
+    }
+
+    int indexOf(Object name) {
+      final Integer index = indexes.get(name);
+      return index == null ? -1 : index;
+    }
+  }
+
+  private enum Absent {
+    VALUE
+  }
+
+  RowMap(Columns columns) {
+    this.columns = columns;
+    this.values = new Object[columns.names.length];
+    Arrays.fill(values, Absent.VALUE);
+  }
+
+  @Override
+  public int size() {
+    return size + (others == null ? 0 : others.size());
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    final int index = columns.indexOf(key);
+    if (index >= 0 && values[index] != Absent.VALUE) {
+      return true;
+    }
+    return others != null && others.containsKey(key);
+  }
+
+  @Override
+  public Object get(Object key) {
+    final int index = columns.indexOf(key);
+    if (index >= 0 && values[index] != Absent.VALUE) {
+      return values[index];
+    }
+    return others == null ? null : others.get(key);
+  }
+
+  @Override
+  public Object put(String key, Object value) {
+    final int index = columns.indexOf(key);
+    if (index < 0) {
+      if (others == null) {
+        others = new LinkedHashMap<>();
+      }
+      return others.put(key, value);
+    }
+    final Object previous = values[index];
+    values[index] = value;
+    if (previous == Absent.VALUE) {
+      size++;
+      return null;
+    }
+    return previous;
+  }
+
+  @Override
+  public Object remove(Object key) {
+    final int index = columns.indexOf(key);
+    if (index >= 0 && values[index] != Absent.VALUE) {
+      final Object previous = values[index];
+      values[index] = Absent.VALUE;
+      size--;
+      return previous;
+    }
+    return others == null ? null : others.remove(key);
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(values, Absent.VALUE);
+    size = 0;
+    others = null;
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    return new AbstractSet<Entry<String, Object>>() {
+      @Override
+      public Iterator<Entry<String, Object>> iterator() {
+        return new EntryIterator();
+      }
+
+      @Override
+      public int size() {
+        return RowMap.this.size();
+      }
+    };
+  }
+
+  private class EntryIterator implements Iterator<Entry<String, Object>> {
+    private int next = nextColumn(0);
+    private int current = -1;
+    private Iterator<Entry<String, Object>> othersIterator;
+
+    private int nextColumn(int from) {
+      int index = from;
+      while (index < values.length && values[index] == Absent.VALUE) {
+        index++;
+      }
+      return index;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next < values.length) {
+        return true;
+      }
+      if (othersIterator == null && others != null) {
+        othersIterator = others.entrySet().iterator();
+      }
+      return othersIterator != null && othersIterator.hasNext();
+    }
+
+    @Override
+    public Entry<String, Object> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      if (next < values.length) {
+        current = next;
+        next = nextColumn(next + 1);
+        final String key = columns.names[current];
+        return new SimpleEntry<String, Object>(key, values[current]) {
+          private static final long serialVersionUID = 1L;
+
+          @Override
+          public Object setValue(Object value) {
+            super.setValue(value);
+            return put(key, value);
+          }
+        };
+      }
+      current = -1;
+      return othersIterator.next();
+    }
+
+    @Override
+    public void remove() {
+      if (current >= 0) {
+        if (values[current] == Absent.VALUE) {
+          throw new IllegalStateException();
+        }
+        values[current] = Absent.VALUE;
+        size--;
+      } else if (othersIterator != null) {
+        othersIterator.remove();
+      } else {
+        throw new IllegalStateException();
+      }
+    }
+  }
+
+}
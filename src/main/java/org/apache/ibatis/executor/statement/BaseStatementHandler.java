@@ -98,6 +98,15 @@ public abstract class BaseStatementHandler implements StatementHandler {
     }
   }
 
+  @Override
+  public void reuse(Statement statement, Integer transactionTimeout) throws SQLException {
+    // the timeout and fetch size of the previous execution are reset first, it may have been another mapped statement
+    statement.setQueryTimeout(0);
+    setStatementTimeout(statement, transactionTimeout);
+    statement.setFetchSize(0);
+    setFetchSize(statement);
+  }
+
   protected abstract Statement instantiateStatement(Connection connection) throws SQLException;
 
   protected void setStatementTimeout(Statement stmt, Integer transactionTimeout) throws SQLException {
@@ -119,6 +128,15 @@ public abstract class BaseStatementHandler implements StatementHandler {
       stmt.setFetchSize(fetchSize);
       return;
     }
+    if (configuration.isAdaptiveFetchSizeEnabled()) {
+      int averageRowCount = mappedStatement.getRowCountStatistics().getAverage();
+      if (averageRowCount >= 0) {
+        // one row more than usual lets the driver see the end of the results in the same round trip
+        int adaptiveFetchSize = Math.max(averageRowCount + 1, configuration.getAdaptiveFetchSizeMin());
+        stmt.setFetchSize(Math.min(adaptiveFetchSize, configuration.getAdaptiveFetchSizeMax()));
+        return;
+      }
+    }
     Integer defaultFetchSize = configuration.getDefaultFetchSize();
     if (defaultFetchSize != null) {
       stmt.setFetchSize(defaultFetchSize);
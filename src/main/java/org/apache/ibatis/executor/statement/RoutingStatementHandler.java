@@ -59,6 +59,11 @@ public class RoutingStatementHandler implements StatementHandler {
     return delegate.prepare(connection, transactionTimeout);
   }
 
+  @Override
+  public void reuse(Statement statement, Integer transactionTimeout) throws SQLException {
+    delegate.reuse(statement, transactionTimeout);
+  }
+
   @Override
   public void parameterize(Statement statement) throws SQLException {
     delegate.parameterize(statement);
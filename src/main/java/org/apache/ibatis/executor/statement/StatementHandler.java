@@ -33,6 +33,16 @@ public interface StatementHandler {
   Statement prepare(Connection connection, Integer transactionTimeout)
       throws SQLException;
 
+  /**
+   * Prepares a statement that was prepared before for another execution, by an executor that reuses statements.
+   *
+   * @since 3.5.2
+   */
+  default void reuse(Statement statement, Integer transactionTimeout)
+      throws SQLException {
+    StatementUtil.applyTransactionTimeout(statement, statement.getQueryTimeout(), transactionTimeout);
+  }
+
   void parameterize(Statement statement)
       throws SQLException;
 
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.mapping;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,11 +36,14 @@ import org.apache.ibatis.session.Configuration;
  */
 public class BoundSql {
 
+  private static final Object NO_VALUE = new Object();
+
   private final String sql;
   private final List<ParameterMapping> parameterMappings;
   private final Object parameterObject;
   private final Map<String, Object> additionalParameters;
   private final MetaObject metaParameters;
+  private Object[] parameterValues;
 
   public BoundSql(Configuration configuration, String sql, List<ParameterMapping> parameterMappings, Object parameterObject) {
     this.sql = sql;
@@ -73,4 +77,40 @@ public class BoundSql {
   public Object getAdditionalParameter(String name) {
     return metaParameters.getValue(name);
   }
+
+  /**
+   * Returns whether the value of the parameter mapping at an index was bound by position, instead of being read
+   * from its property.
+   *
+   * @since 3.5.2
+   */
+  public boolean hasParameterValue(int index) {
+    // mappings may be added after the values were bound, by an interceptor for example
+    return parameterValues != null && index < parameterValues.length && parameterValues[index] != NO_VALUE;
+  }
+
+  /**
+   * @since 3.5.2
+   */
+  public Object getParameterValue(int index) {
+    return parameterValues[index];
+  }
+
+  /**
+   * Binds the value of the parameter mapping at an index by position.
+   *
+   * @since 3.5.2
+   */
+  public void setParameterValue(int index, Object value) {
+    if (parameterValues == null || index >= parameterValues.length) {
+      int bound = parameterValues == null ? 0 : parameterValues.length;
+      Object[] values = new Object[Math.max(parameterMappings.size(), index + 1)];
+      if (bound > 0) {
+        System.arraycopy(parameterValues, 0, values, 0, bound);
+      }
+      Arrays.fill(values, bound, values.length, NO_VALUE);
+      parameterValues = values;
+    }
+    parameterValues[index] = value;
+  }
 }
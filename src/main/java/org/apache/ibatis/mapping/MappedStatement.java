@@ -56,6 +56,7 @@ public final class MappedStatement {
     private Log statementLog;
     private LanguageDriver lang;
     private String[] resultSets;
+    private final RowCountStatistics rowCountStatistics = new RowCountStatistics();
 
     MappedStatement() {
         // constructor disabled
@@ -224,6 +225,13 @@ public final class MappedStatement {
         return fetchSize;
     }
 
+    /**
+     * @since 3.5.2
+     */
+    public RowCountStatistics getRowCountStatistics() {
+        return rowCountStatistics;
+    }
+
     public Integer getTimeout() {
         return timeout;
     }
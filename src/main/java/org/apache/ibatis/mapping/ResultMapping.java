@@ -40,6 +40,8 @@ public class ResultMapping {
     private TypeHandler<?> typeHandler;
     private String nestedResultMapId;
     private String nestedQueryId;
+    private String nestedBatchQueryId;
+    private String batchKeyProperty;
     private Set<String> notNullColumns;
     private String columnPrefix;
     private List<ResultFlag> flags;
@@ -94,6 +96,22 @@ public class ResultMapping {
             return this;
         }
 
+        /**
+         * @since 3.5.2
+         */
+        public Builder nestedBatchQueryId(String nestedBatchQueryId) {
+            resultMapping.nestedBatchQueryId = nestedBatchQueryId;
+            return this;
+        }
+
+        /**
+         * @since 3.5.2
+         */
+        public Builder batchKeyProperty(String batchKeyProperty) {
+            resultMapping.batchKeyProperty = batchKeyProperty;
+            return this;
+        }
+
         public Builder resultSet(String resultSet) {
             resultMapping.resultSet = resultSet;
             return this;
@@ -158,6 +176,17 @@ public class ResultMapping {
             if (resultMapping.nestedResultMapId == null && resultMapping.column == null && resultMapping.composites.isEmpty()) {
                 throw new IllegalStateException("Mapping is missing column attribute for property " + resultMapping.property);
             }
+            if (resultMapping.nestedBatchQueryId != null) {
+                if (resultMapping.nestedQueryId == null) {
+                    throw new IllegalStateException("A batch select requires a nested select in property " + resultMapping.property);
+                }
+                if (resultMapping.batchKeyProperty == null) {
+                    throw new IllegalStateException("A batch select requires a batchKeyProperty in property " + resultMapping.property);
+                }
+                if (!resultMapping.composites.isEmpty()) {
+                    throw new IllegalStateException("A batch select cannot be used with a composite column in property " + resultMapping.property);
+                }
+            }
             if (resultMapping.getResultSet() != null) {
                 int numColumns = 0;
                 if (resultMapping.column != null) {
@@ -215,6 +244,24 @@ public class ResultMapping {
         return nestedQueryId;
     }
 
+    /**
+     * Returns the id of the statement that loads this property for many parent rows at once.
+     *
+     * @since 3.5.2
+     */
+    public String getNestedBatchQueryId() {
+        return nestedBatchQueryId;
+    }
+
+    /**
+     * Returns the property of the batch select results that holds the value of this mapping's column.
+     *
+     * @since 3.5.2
+     */
+    public String getBatchKeyProperty() {
+        return batchKeyProperty;
+    }
+
     public Set<String> getNotNullColumns() {
         return notNullColumns;
     }
@@ -295,6 +342,8 @@ public class ResultMapping {
         //sb.append(", typeHandler=").append(typeHandler); // typeHandler also doesn't have a useful .toString()
         sb.append(", nestedResultMapId='").append(nestedResultMapId).append('\'');
         sb.append(", nestedQueryId='").append(nestedQueryId).append('\'');
+        sb.append(", nestedBatchQueryId='").append(nestedBatchQueryId).append('\'');
+        sb.append(", batchKeyProperty='").append(batchKeyProperty).append('\'');
         sb.append(", notNullColumns=").append(notNullColumns);
         sb.append(", columnPrefix='").append(columnPrefix).append('\'');
         sb.append(", flags=").append(flags);
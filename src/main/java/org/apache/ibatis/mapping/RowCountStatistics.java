@@ -0,0 +1,42 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.mapping;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps a moving average of the number of rows the executions of a statement read,
+ * which is used to adapt the fetch size of later executions.
+ *
+ * @since 3.5.2
+ */
+public class RowCountStatistics {
+
+  private final AtomicInteger average = new AtomicInteger(-1);
+
+  public void record(int rowCount) {
+    // recent executions weigh more so the average follows a change of the data
+    average.accumulateAndGet(rowCount, (avg, rows) -> avg < 0 ? rows : (int) ((3L * avg + rows) / 4));
+  }
+
+  /**
+   * Returns the average number of rows, or -1 if nothing was recorded yet.
+   */
+  public int getAverage() {
+    return average.get();
+  }
+
+}
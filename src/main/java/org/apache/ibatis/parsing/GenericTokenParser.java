@@ -15,6 +15,10 @@
  */
 package org.apache.ibatis.parsing;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
 /**
  * @author Clinton Begin
  */
@@ -39,14 +43,44 @@ public class GenericTokenParser {
     if (start == -1) {
       return text;
     }
-    char[] src = text.toCharArray();
-    int offset = 0;
     final StringBuilder builder = new StringBuilder();
+    scan(text, start, builder, expression -> builder.append(handler.handleToken(expression)));
+    return builder.toString();
+  }
+
+  /**
+   * Splits a text into the text between its tokens and the expressions of its tokens, so that it can be parsed
+   * repeatedly without being scanned again. The handler of this parser is not used.
+   *
+   * @since 3.5.2
+   */
+  public TokenizedText tokenize(String text) {
+    if (text == null || text.isEmpty()) {
+      return new TokenizedText(new String[] { "" }, new String[0]);
+    }
+    int start = text.indexOf(openToken);
+    if (start == -1) {
+      return new TokenizedText(new String[] { text }, new String[0]);
+    }
+    final List<String> segments = new ArrayList<>();
+    final List<String> expressions = new ArrayList<>();
+    final StringBuilder builder = new StringBuilder();
+    scan(text, start, builder, expression -> {
+      segments.add(builder.toString());
+      builder.setLength(0);
+      expressions.add(expression);
+    });
+    segments.add(builder.toString());
+    return new TokenizedText(segments.toArray(new String[0]), expressions.toArray(new String[0]));
+  }
+
+  private void scan(String text, int start, StringBuilder builder, Consumer<String> tokenConsumer) {
+    int offset = 0;
     StringBuilder expression = null;
     while (start > -1) {
-      if (start > 0 && src[start - 1] == '\\') {
+      if (start > 0 && text.charAt(start - 1) == '\\') {
         // this open token is escaped. remove the backslash and continue.
-        builder.append(src, offset, start - offset - 1).append(openToken);
+        builder.append(text, offset, start - 1).append(openToken);
         offset = start + openToken.length();
       } else {
         // found open token. let's search close token.
@@ -55,35 +89,34 @@ public class GenericTokenParser {
         } else {
           expression.setLength(0);
         }
-        builder.append(src, offset, start - offset);
+        builder.append(text, offset, start);
         offset = start + openToken.length();
         int end = text.indexOf(closeToken, offset);
         while (end > -1) {
-          if (end > offset && src[end - 1] == '\\') {
+          if (end > offset && text.charAt(end - 1) == '\\') {
             // this close token is escaped. remove the backslash and continue.
-            expression.append(src, offset, end - offset - 1).append(closeToken);
+            expression.append(text, offset, end - 1).append(closeToken);
             offset = end + closeToken.length();
             end = text.indexOf(closeToken, offset);
           } else {
-            expression.append(src, offset, end - offset);
+            expression.append(text, offset, end);
             offset = end + closeToken.length();
             break;
           }
         }
         if (end == -1) {
           // close token was not found.
-          builder.append(src, start, src.length - start);
-          offset = src.length;
+          builder.append(text, start, text.length());
+          offset = text.length();
         } else {
-          builder.append(handler.handleToken(expression.toString()));
+          tokenConsumer.accept(expression.toString());
           offset = end + closeToken.length();
         }
       }
       start = text.indexOf(openToken, offset);
     }
-    if (offset < src.length) {
-      builder.append(src, offset, src.length - offset);
+    if (offset < text.length()) {
+      builder.append(text, offset, text.length());
     }
-    return builder.toString();
   }
 }
@@ -0,0 +1,59 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.parsing;
+
+/**
+ * A text split by {@link GenericTokenParser#tokenize(String)} into the text between its tokens and the expressions of
+ * its tokens, which is parsed by splicing the values of the tokens between the segments.
+ *
+ * @since 3.5.2
+ */
+public final class TokenizedText {
+
+  private final String[] segments;
+  private final String[] expressions;
+  private final int segmentsLength;
+
+  TokenizedText(String[] segments, String[] expressions) {
+    this.segments = segments;
+    this.expressions = expressions;
+    int length = 0;
+    for (String segment : segments) {
+      length += segment.length();
+    }
+    this.segmentsLength = length;
+  }
+
+  public boolean hasTokens() {
+    return expressions.length > 0;
+  }
+
+  /**
+   * Returns the text with each token replaced by the value the handler returns for its expression, like
+   * {@link GenericTokenParser#parse(String)} does.
+   */
+  public String parse(TokenHandler handler) {
+    if (expressions.length == 0) {
+      return segments[0];
+    }
+    StringBuilder builder = new StringBuilder(segmentsLength + 16 * expressions.length);
+    for (int i = 0; i < expressions.length; i++) {
+      builder.append(segments[i]).append(handler.handleToken(expressions[i]));
+    }
+    return builder.append(segments[expressions.length]).toString();
+  }
+
+}
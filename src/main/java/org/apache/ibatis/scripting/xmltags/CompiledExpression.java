@@ -0,0 +1,534 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import ognl.OgnlOps;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.ReflectorFactory;
+
+/**
+ * An expression of the OGNL subset most dynamic SQL is written in, compiled into a tree of nodes that is evaluated
+ * against the bindings of a {@link DynamicContext} without creating an OGNL context.
+ * <p>
+ * The subset is made of property paths, the {@code size()}, {@code isEmpty()} and {@code length()} methods,
+ * {@code null}, boolean, integer and string literals, the comparison operators and {@code and}, {@code or} and
+ * {@code not} in their symbolic and named forms. Operators are evaluated with {@link OgnlOps} like OGNL does.
+ * Other expressions are not compiled, and values the tree cannot handle the way OGNL does (properties of lists or
+ * arrays, map properties with a special meaning, null targets) make {@link #getValue(Map)} throw an
+ * {@link UnsupportedExpressionException}, so that the expression is evaluated by OGNL instead.
+ *
+ * @since 3.5.2
+ */
+final class CompiledExpression {
+
+  private static final ReflectorFactory REFLECTOR_FACTORY = new DefaultReflectorFactory();
+  private static final DynamicContext.ContextAccessor CONTEXT_ACCESSOR = new DynamicContext.ContextAccessor();
+  private static final UnsupportedExpressionException UNSUPPORTED = new UnsupportedExpressionException();
+
+  private final Node root;
+
+  private CompiledExpression(Node root) {
+    this.root = root;
+  }
+
+  /**
+   * Returns the compiled expression, or null if the expression is not part of the supported subset.
+   */
+  static CompiledExpression compile(String expression) {
+    return ExpressionCache.DEFAULT.getCompiledExpression(expression);
+  }
+
+  /**
+   * Compiles the expression without caching it, returns null if it is not part of the supported subset.
+   */
+  static CompiledExpression parse(String expression) {
+    try {
+      return new CompiledExpression(new Parser(expression).parse());
+    } catch (UnsupportedExpressionException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Evaluates the expression.
+   *
+   * @throws UnsupportedExpressionException if the values cannot be handled here
+   * @throws RuntimeException if OGNL would have failed as well
+   */
+  Object getValue(Map<String, Object> bindings) {
+    return root.getValue(bindings);
+  }
+
+  /**
+   * Thrown when the values of an expression cannot be handled the way OGNL does, carries no stack trace.
+   */
+  static final class UnsupportedExpressionException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    UnsupportedExpressionException() {
+      super(null, null, false, false);
+    }
+  }
+
+  private interface Node {
+    Object getValue(Map<String, Object> bindings);
+  }
+
+  private static final class Literal implements Node {
+    private final Object value;
+
+    Literal(Object value) {
+      this.value = value;
+    }
+
+    @Override
+    public Object getValue(Map<String, Object> bindings) {
+      return value;
+    }
+  }
+
+  private static final class BindingProperty implements Node {
+    private final String name;
+
+    BindingProperty(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public Object getValue(Map<String, Object> bindings) {
+      return CONTEXT_ACCESSOR.getProperty(null, bindings, name);
+    }
+  }
+
+  private static final class Property implements Node {
+    private final String expression;
+    private final Node target;
+    private final String name;
+
+    Property(String expression, Node target, String name) {
+      this.expression = expression;
+      this.target = target;
+      this.name = name;
+    }
+
+    @Override
+    public Object getValue(Map<String, Object> bindings) {
+      final Object value = target.getValue(bindings);
+      if (value instanceof Map && !(value instanceof DynamicContext.ContextMap)) {
+        if ("size".equals(name) || "keys".equals(name) || "keySet".equals(name) || "values".equals(name) || "isEmpty".equals(name)) {
+          throw UNSUPPORTED;
+        }
+        return ((Map<?, ?>) value).get(name);
+      }
+      if (value == null || value instanceof Map || value instanceof Collection || value instanceof Iterator
+          || value instanceof Enumeration || value.getClass().isArray()) {
+        throw UNSUPPORTED;
+      }
+      final Reflector reflector = REFLECTOR_FACTORY.findForClass(value.getClass());
+      if (!reflector.hasGetter(name)) {
+        throw UNSUPPORTED;
+      }
+      try {
+        return reflector.getGetInvoker(name).invoke(value, null);
+      } catch (Exception e) {
+        // the getter must not be invoked again by OGNL
+        throw new BuilderException("Error evaluating expression '" + expression + "'. Cause: " + e, e);
+      }
+    }
+  }
+
+  private static final class MethodCall implements Node {
+    private final Node target;
+    private final String method;
+
+    MethodCall(Node target, String method) {
+      this.target = target;
+      this.method = method;
+    }
+
+    @Override
+    public Object getValue(Map<String, Object> bindings) {
+      final Object value = target.getValue(bindings);
+      if (value instanceof Collection) {
+        if ("size".equals(method)) {
+          return ((Collection<?>) value).size();
+        } else if ("isEmpty".equals(method)) {
+          return ((Collection<?>) value).isEmpty();
+        }
+      } else if (value instanceof Map) {
+        if ("size".equals(method)) {
+          return ((Map<?, ?>) value).size();
+        } else if ("isEmpty".equals(method)) {
+          return ((Map<?, ?>) value).isEmpty();
+        }
+      } else if (value instanceof String) {
+        if ("length".equals(method)) {
+          return ((String) value).length();
+        } else if ("isEmpty".equals(method)) {
+          return ((String) value).isEmpty();
+        }
+      }
+      throw UNSUPPORTED;
+    }
+  }
+
+  private static final class And implements Node {
+    private final Node[] children;
+
+    And(List<Node> children) {
+      this.children = children.toArray(new Node[0]);
+    }
+
+    @Override
+    public Object getValue(Map<String, Object> bindings) {
+      Object result = null;
+      for (int i = 0; i < children.length; i++) {
+        result = children[i].getValue(bindings);
+        if (i < children.length - 1 && !OgnlOps.booleanValue(result)) {
+          break;
+        }
+      }
+      return result;
+    }
+  }
+
+  private static final class Or implements Node {
+    private final Node[] children;
+
+    Or(List<Node> children) {
+      this.children = children.toArray(new Node[0]);
+    }
+
+    @Override
+    public Object getValue(Map<String, Object> bindings) {
+      Object result = null;
+      for (int i = 0; i < children.length; i++) {
+        result = children[i].getValue(bindings);
+        if (i < children.length - 1 && OgnlOps.booleanValue(result)) {
+          break;
+        }
+      }
+      return result;
+    }
+  }
+
+  private static final class Not implements Node {
+    private final Node child;
+
+    Not(Node child) {
+      this.child = child;
+    }
+
+    @Override
+    public Object getValue(Map<String, Object> bindings) {
+      return OgnlOps.booleanValue(child.getValue(bindings)) ? Boolean.FALSE : Boolean.TRUE;
+    }
+  }
+
+  private enum Operator {
+    EQ, NEQ, LT, GT, LTE, GTE
+  }
+
+  private static final class Comparison implements Node {
+    private final Node left;
+    private final Operator operator;
+    private final Node right;
+
+    Comparison(Node left, Operator operator, Node right) {
+      this.left = left;
+      this.operator = operator;
+      this.right = right;
+    }
+
+    @Override
+    public Object getValue(Map<String, Object> bindings) {
+      final Object v1 = left.getValue(bindings);
+      final Object v2 = right.getValue(bindings);
+      final boolean result;
+      switch (operator) {
+        case EQ:
+          result = OgnlOps.equal(v1, v2);
+          break;
+        case NEQ:
+          result = !OgnlOps.equal(v1, v2);
+          break;
+        case LT:
+          result = OgnlOps.less(v1, v2);
+          break;
+        case GT:
+          result = OgnlOps.greater(v1, v2);
+          break;
+        case LTE:
+          result = !OgnlOps.greater(v1, v2);
+          break;
+        default:
+          result = !OgnlOps.less(v1, v2);
+          break;
+      }
+      return result ? Boolean.TRUE : Boolean.FALSE;
+    }
+  }
+
+  /**
+   * A recursive descent parser for the supported subset, following the precedence of the OGNL grammar.
+   */
+  private static final class Parser {
+
+    private final String expression;
+    private int position;
+
+    Parser(String expression) {
+      this.expression = expression;
+    }
+
+    Node parse() {
+      final Node node = parseOr();
+      skipWhitespace();
+      if (position < expression.length()) {
+        throw UNSUPPORTED;
+      }
+      return node;
+    }
+
+    private Node parseOr() {
+      final Node first = parseAnd();
+      if (!acceptOperator("||") && !acceptKeyword("or")) {
+        return first;
+      }
+      final List<Node> children = new ArrayList<>();
+      children.add(first);
+      do {
+        children.add(parseAnd());
+      } while (acceptOperator("||") || acceptKeyword("or"));
+      return new Or(children);
+    }
+
+    private Node parseAnd() {
+      final Node first = parseEquality();
+      if (!acceptOperator("&&") && !acceptKeyword("and")) {
+        return first;
+      }
+      final List<Node> children = new ArrayList<>();
+      children.add(first);
+      do {
+        children.add(parseEquality());
+      } while (acceptOperator("&&") || acceptKeyword("and"));
+      return new And(children);
+    }
+
+    private Node parseEquality() {
+      Node node = parseRelational();
+      while (true) {
+        if (acceptOperator("==") || acceptKeyword("eq")) {
+          node = new Comparison(node, Operator.EQ, parseRelational());
+        } else if (acceptOperator("!=") || acceptKeyword("neq")) {
+          node = new Comparison(node, Operator.NEQ, parseRelational());
+        } else {
+          return node;
+        }
+      }
+    }
+
+    private Node parseRelational() {
+      Node node = parseUnary();
+      while (true) {
+        if (acceptOperator("<=") || acceptKeyword("lte")) {
+          node = new Comparison(node, Operator.LTE, parseUnary());
+        } else if (acceptOperator(">=") || acceptKeyword("gte")) {
+          node = new Comparison(node, Operator.GTE, parseUnary());
+        } else if (acceptOperator("<") || acceptKeyword("lt")) {
+          node = new Comparison(node, Operator.LT, parseUnary());
+        } else if (acceptOperator(">") || acceptKeyword("gt")) {
+          node = new Comparison(node, Operator.GT, parseUnary());
+        } else {
+          return node;
+        }
+      }
+    }
+
+    private Node parseUnary() {
+      if (acceptOperator("!") || acceptKeyword("not")) {
+        return new Not(parseUnary());
+      }
+      return parsePrimary();
+    }
+
+    private Node parsePrimary() {
+      skipWhitespace();
+      if (position >= expression.length()) {
+        throw UNSUPPORTED;
+      }
+      final char c = expression.charAt(position);
+      if (c == '(') {
+        position++;
+        final Node node = parseOr();
+        expect(')');
+        return node;
+      } else if (c == '\'' || c == '"') {
+        return parseString(c);
+      } else if (c >= '0' && c <= '9') {
+        return parseInteger();
+      } else if (Character.isJavaIdentifierStart(c)) {
+        return parsePath();
+      }
+      throw UNSUPPORTED;
+    }
+
+    private Node parseString(char quote) {
+      final int end = expression.indexOf(quote, position + 1);
+      if (end < 0) {
+        throw UNSUPPORTED;
+      }
+      final String value = expression.substring(position + 1, end);
+      if (value.indexOf('\\') >= 0) {
+        throw UNSUPPORTED;
+      }
+      position = end + 1;
+      // OGNL reads a single character between single quotes as a Character
+      return new Literal(quote == '\'' && value.length() == 1 ? (Object) value.charAt(0) : value);
+    }
+
+    private Node parseInteger() {
+      final int start = position;
+      while (position < expression.length() && Character.isDigit(expression.charAt(position))) {
+        position++;
+      }
+      if ((position < expression.length() && (Character.isJavaIdentifierPart(expression.charAt(position)) || expression.charAt(position) == '.'))
+          || (expression.charAt(start) == '0' && position - start > 1)) {
+        // suffixes, decimals and octal numbers
+        throw UNSUPPORTED;
+      }
+      try {
+        return new Literal(Integer.valueOf(expression.substring(start, position)));
+      } catch (NumberFormatException e) {
+        throw UNSUPPORTED;
+      }
+    }
+
+    private Node parsePath() {
+      final String first = parseIdentifier();
+      if ("true".equals(first)) {
+        return new Literal(Boolean.TRUE);
+      } else if ("false".equals(first)) {
+        return new Literal(Boolean.FALSE);
+      } else if ("null".equals(first)) {
+        return new Literal(null);
+      }
+      Node node = new BindingProperty(first);
+      while (acceptOperator(".")) {
+        skipWhitespace();
+        final String name = parseIdentifier();
+        if (acceptOperator("(")) {
+          expect(')');
+          if (!"size".equals(name) && !"isEmpty".equals(name) && !"length".equals(name)) {
+            throw UNSUPPORTED;
+          }
+          node = new MethodCall(node, name);
+        } else {
+          node = new Property(expression, node, name);
+        }
+      }
+      return node;
+    }
+
+    private String parseIdentifier() {
+      final int start = position;
+      if (position >= expression.length() || !Character.isJavaIdentifierStart(expression.charAt(position))) {
+        throw UNSUPPORTED;
+      }
+      position++;
+      while (position < expression.length() && Character.isJavaIdentifierPart(expression.charAt(position))) {
+        position++;
+      }
+      final String identifier = expression.substring(start, position);
+      if (isKeyword(identifier)) {
+        throw UNSUPPORTED;
+      }
+      return identifier;
+    }
+
+    private boolean isKeyword(String identifier) {
+      switch (identifier) {
+        case "and":
+        case "or":
+        case "not":
+        case "eq":
+        case "neq":
+        case "lt":
+        case "gt":
+        case "lte":
+        case "gte":
+        case "in":
+        case "instanceof":
+        case "new":
+        case "shl":
+        case "shr":
+        case "ushr":
+        case "band":
+        case "bor":
+        case "xor":
+          return true;
+        default:
+          return false;
+      }
+    }
+
+    private boolean acceptOperator(String operator) {
+      skipWhitespace();
+      if (expression.startsWith(operator, position)) {
+        position += operator.length();
+        return true;
+      }
+      return false;
+    }
+
+    private boolean acceptKeyword(String keyword) {
+      skipWhitespace();
+      final int end = position + keyword.length();
+      if (expression.startsWith(keyword, position)
+          && (end == expression.length() || !Character.isJavaIdentifierPart(expression.charAt(end)))) {
+        position = end;
+        return true;
+      }
+      return false;
+    }
+
+    private void expect(char c) {
+      skipWhitespace();
+      if (position >= expression.length() || expression.charAt(position) != c) {
+        throw UNSUPPORTED;
+      }
+      position++;
+    }
+
+    private void skipWhitespace() {
+      while (position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+        position++;
+      }
+    }
+  }
+
+}
@@ -0,0 +1,267 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.apache.ibatis.parsing.GenericTokenParser;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Folds the parts of a tree of dynamic SQL nodes that only depend on the database id of the configuration, which is
+ * known when statements are built: {@code ${_databaseId}} substitutions, and {@code <if>} and {@code <when>} tests
+ * that only read {@code _databaseId}. Constant tests are replaced by the branch they select.
+ * <p>
+ * Configuration variables in {@code ${}} are already substituted when the mapper is parsed, so a statement whose
+ * folded tree is left with static text only (possibly trimmed by {@code <trim>}, {@code <where>} or {@code <set>})
+ * can be parsed once by a {@code RawSqlSource}.
+ *
+ * @since 3.5.2
+ */
+final class ConstantFolder {
+
+  private final String databaseId;
+  private final ExpressionCache expressionCache;
+
+  private ConstantFolder(String databaseId, ExpressionCache expressionCache) {
+    this.databaseId = databaseId;
+    this.expressionCache = expressionCache;
+  }
+
+  /**
+   * Returns the folded tree, or the tree itself if the configuration has no database id or the statement binds a
+   * variable named {@code _databaseId}.
+   */
+  static MixedSqlNode fold(Configuration configuration, MixedSqlNode rootSqlNode) {
+    String databaseId = configuration.getDatabaseId();
+    if (databaseId == null || bindsDatabaseId(rootSqlNode)) {
+      return rootSqlNode;
+    }
+    ConstantFolder folder = new ConstantFolder(databaseId, configuration.getExpressionCache());
+    List<SqlNode> contents = new ArrayList<>();
+    folder.fold(rootSqlNode, contents);
+    return new MixedSqlNode(contents);
+  }
+
+  /**
+   * Returns the SQL a tree generates for any parameter, or null if the tree depends on the parameter. The SQL of a
+   * tree that references {@code _parameter} or {@code _databaseId} in {@code #{}} is null as well, since those are
+   * only bound by dynamic statements.
+   */
+  static String getStaticSql(Configuration configuration, SqlNode rootSqlNode) {
+    if (!isStatic(rootSqlNode)) {
+      return null;
+    }
+    DynamicContext context = new DynamicContext(configuration, null);
+    rootSqlNode.apply(context);
+    String sql = context.getSql();
+    boolean[] referencesBindings = new boolean[1];
+    new GenericTokenParser("#{", "}", content -> {
+      String property = content.trim();
+      if (isBinding(property, DynamicContext.PARAMETER_OBJECT_KEY) || isBinding(property, DynamicContext.DATABASE_ID_KEY)) {
+        referencesBindings[0] = true;
+      }
+      return content;
+    }).parse(sql);
+    return referencesBindings[0] ? null : sql;
+  }
+
+  private static boolean isBinding(String property, String name) {
+    return property.startsWith(name)
+        && (property.length() == name.length() || !Character.isJavaIdentifierPart(property.charAt(name.length())));
+  }
+
+  private static boolean isStatic(SqlNode node) {
+    Class<?> type = node.getClass();
+    if (type == StaticTextSqlNode.class) {
+      return true;
+    }
+    if (type == MixedSqlNode.class) {
+      for (SqlNode child : ((MixedSqlNode) node).getContents()) {
+        if (!isStatic(child)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (type == TrimSqlNode.class || type == WhereSqlNode.class || type == SetSqlNode.class) {
+      return isStatic(((TrimSqlNode) node).getContents());
+    }
+    return false;
+  }
+
+  private static boolean bindsDatabaseId(SqlNode node) {
+    if (node instanceof VarDeclSqlNode) {
+      return DynamicContext.DATABASE_ID_KEY.equals(((VarDeclSqlNode) node).getName());
+    }
+    if (node instanceof ForEachSqlNode) {
+      ForEachSqlNode forEachSqlNode = (ForEachSqlNode) node;
+      return DynamicContext.DATABASE_ID_KEY.equals(forEachSqlNode.getItem())
+          || DynamicContext.DATABASE_ID_KEY.equals(forEachSqlNode.getIndex())
+          || bindsDatabaseId(forEachSqlNode.getContents());
+    }
+    if (node instanceof MixedSqlNode) {
+      for (SqlNode child : ((MixedSqlNode) node).getContents()) {
+        if (bindsDatabaseId(child)) {
+          return true;
+        }
+      }
+      return false;
+    }
+    if (node instanceof IfSqlNode) {
+      return bindsDatabaseId(((IfSqlNode) node).getContents());
+    }
+    if (node instanceof ChooseSqlNode) {
+      ChooseSqlNode chooseSqlNode = (ChooseSqlNode) node;
+      for (SqlNode when : chooseSqlNode.getIfSqlNodes()) {
+        if (bindsDatabaseId(when)) {
+          return true;
+        }
+      }
+      return chooseSqlNode.getDefaultSqlNode() != null && bindsDatabaseId(chooseSqlNode.getDefaultSqlNode());
+    }
+    if (node instanceof TrimSqlNode) {
+      return bindsDatabaseId(((TrimSqlNode) node).getContents());
+    }
+    return false;
+  }
+
+  private void fold(SqlNode node, List<SqlNode> target) {
+    Class<?> type = node.getClass();
+    if (type == MixedSqlNode.class) {
+      for (SqlNode child : ((MixedSqlNode) node).getContents()) {
+        fold(child, target);
+      }
+    } else if (type == TextSqlNode.class) {
+      target.add(foldText((TextSqlNode) node));
+    } else if (type == IfSqlNode.class) {
+      IfSqlNode ifSqlNode = (IfSqlNode) node;
+      Boolean test = evaluateConstant(ifSqlNode.getTest());
+      if (test == null) {
+        target.add(new IfSqlNode(fold(ifSqlNode.getContents()), ifSqlNode.getTest()));
+      } else if (test) {
+        fold(ifSqlNode.getContents(), target);
+      }
+    } else if (type == ChooseSqlNode.class) {
+      foldChoose((ChooseSqlNode) node, target);
+    } else if (type == TrimSqlNode.class || type == WhereSqlNode.class || type == SetSqlNode.class) {
+      TrimSqlNode trimSqlNode = (TrimSqlNode) node;
+      target.add(trimSqlNode.withContents(fold(trimSqlNode.getContents())));
+    } else if (type == ForEachSqlNode.class) {
+      ForEachSqlNode forEachSqlNode = (ForEachSqlNode) node;
+      target.add(new ForEachSqlNode(forEachSqlNode.getConfiguration(), fold(forEachSqlNode.getContents()),
+          forEachSqlNode.getCollectionExpression(), forEachSqlNode.getIndex(), forEachSqlNode.getItem(),
+          forEachSqlNode.getOpen(), forEachSqlNode.getClose(), forEachSqlNode.getSeparator(), forEachSqlNode.isPadding()));
+    } else {
+      target.add(node);
+    }
+  }
+
+  private SqlNode fold(SqlNode node) {
+    List<SqlNode> contents = new ArrayList<>();
+    fold(node, contents);
+    return new MixedSqlNode(contents);
+  }
+
+  private void foldChoose(ChooseSqlNode chooseSqlNode, List<SqlNode> target) {
+    List<SqlNode> ifSqlNodes = new ArrayList<>();
+    SqlNode defaultSqlNode = chooseSqlNode.getDefaultSqlNode();
+    for (SqlNode when : chooseSqlNode.getIfSqlNodes()) {
+      if (when.getClass() != IfSqlNode.class) {
+        target.add(chooseSqlNode);
+        return;
+      }
+      IfSqlNode ifSqlNode = (IfSqlNode) when;
+      Boolean test = evaluateConstant(ifSqlNode.getTest());
+      if (test == null) {
+        ifSqlNodes.add(new IfSqlNode(fold(ifSqlNode.getContents()), ifSqlNode.getTest()));
+      } else if (test) {
+        // the branches after the first one that is always chosen are never reached
+        defaultSqlNode = ifSqlNode.getContents();
+        break;
+      }
+    }
+    if (ifSqlNodes.isEmpty()) {
+      if (defaultSqlNode != null) {
+        fold(defaultSqlNode, target);
+      }
+    } else {
+      target.add(new ChooseSqlNode(ifSqlNodes, defaultSqlNode == null ? null : fold(defaultSqlNode)));
+    }
+  }
+
+  private SqlNode foldText(TextSqlNode textSqlNode) {
+    if (textSqlNode.getInjectionFilter() != null) {
+      return textSqlNode;
+    }
+    boolean[] constant = {true};
+    String text = new GenericTokenParser("${", "}", content -> {
+      if (!DynamicContext.DATABASE_ID_KEY.equals(content.trim())) {
+        constant[0] = false;
+      }
+      return databaseId;
+    }).parse(textSqlNode.getText());
+    return constant[0] ? new StaticTextSqlNode(text) : textSqlNode;
+  }
+
+  /**
+   * Returns the value of a test that only reads {@code _databaseId}, or null if it reads other bindings or is not
+   * compiled.
+   */
+  private Boolean evaluateConstant(String test) {
+    CompiledExpression expression = expressionCache.getCompiledExpression(test);
+    if (expression == null) {
+      return null;
+    }
+    ConstantBindings bindings = new ConstantBindings();
+    try {
+      Object value = expression.getValue(bindings);
+      return bindings.constant ? ExpressionEvaluator.toBoolean(value) : null;
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Bindings that only hold the database id, and record whether another binding was read.
+   */
+  private final class ConstantBindings extends HashMap<String, Object> {
+    private static final long serialVersionUID = 1L;
+
+    private boolean constant = true;
+
+    @Override
+    public Object get(Object key) {
+      if (DynamicContext.DATABASE_ID_KEY.equals(key)) {
+        return databaseId;
+      }
+      constant = false;
+      return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      if (DynamicContext.DATABASE_ID_KEY.equals(key)) {
+        return true;
+      }
+      constant = false;
+      return false;
+    }
+  }
+
+}
@@ -15,9 +15,11 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.StringJoiner;
 
 import ognl.OgnlContext;
 import ognl.OgnlRuntime;
@@ -39,16 +41,21 @@ public class DynamicContext {
   }
 
   private final ContextMap bindings;
-  private final StringJoiner sqlBuilder = new StringJoiner(" ");
+  private final StringBuilder sqlBuilder = new StringBuilder();
+  private boolean sqlAppended;
   private int uniqueNumber = 0;
+  private List<Object> positionalParameters;
 
   public DynamicContext(Configuration configuration, Object parameterObject) {
-    if (parameterObject != null && !(parameterObject instanceof Map)) {
-      MetaObject metaObject = configuration.newMetaObject(parameterObject);
-      bindings = new ContextMap(metaObject);
-    } else {
-      bindings = new ContextMap(null);
-    }
+    this(configuration, parameterObject, 0);
+  }
+
+  /**
+   * Creates a context whose bindings are sized for the number of bindings the statement is expected to make, so that
+   * they are not rehashed while the statement is applied.
+   */
+  DynamicContext(Configuration configuration, Object parameterObject, int expectedBindings) {
+    bindings = new ContextMap(configuration, parameterObject, expectedBindings);
     bindings.put(PARAMETER_OBJECT_KEY, parameterObject);
     bindings.put(DATABASE_ID_KEY, configuration.getDatabaseId());
   }
@@ -62,24 +69,67 @@ public class DynamicContext {
   }
 
   public void appendSql(String sql) {
-    sqlBuilder.add(sql);
+    if (sqlAppended) {
+      sqlBuilder.append(' ');
+    }
+    sqlAppended = true;
+    sqlBuilder.append(sql);
   }
 
   public String getSql() {
-    return sqlBuilder.toString().trim();
+    // trims the buffer while copying it, like trimming its string would
+    int start = 0;
+    int end = sqlBuilder.length();
+    while (start < end && sqlBuilder.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && sqlBuilder.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    return sqlBuilder.substring(start, end);
   }
 
   public int getUniqueNumber() {
     return uniqueNumber++;
   }
 
+  /**
+   * Adds the value of a parameter bound by position instead of by name, and returns its position.
+   *
+   * @since 3.5.2
+   */
+  public int addPositionalParameter(Object value) {
+    if (positionalParameters == null) {
+      positionalParameters = new ArrayList<>();
+    }
+    positionalParameters.add(value);
+    return positionalParameters.size() - 1;
+  }
+
+  /**
+   * @since 3.5.2
+   */
+  public List<Object> getPositionalParameters() {
+    return positionalParameters == null ? Collections.emptyList() : positionalParameters;
+  }
+
   static class ContextMap extends HashMap<String, Object> {
     private static final long serialVersionUID = 2977601501966151582L;
 
+    private final Configuration configuration;
+    private final Object parameterObject;
+    // created when a property of the parameter is first read
     private MetaObject parameterMetaObject;
 
-    public ContextMap(MetaObject parameterMetaObject) {
-      this.parameterMetaObject = parameterMetaObject;
+    public ContextMap(Configuration configuration, Object parameterObject, int expectedBindings) {
+      // the parameter and the database id are always bound
+      super(Math.max(16, (int) ((expectedBindings + 2) / 0.75f) + 1));
+      this.configuration = configuration;
+      this.parameterObject = parameterObject;
+    }
+
+    ExpressionCache getExpressionCache() {
+      return configuration.getExpressionCache();
     }
 
     @Override
@@ -89,6 +139,9 @@ public class DynamicContext {
         return super.get(strKey);
       }
 
+      if (parameterMetaObject == null && parameterObject != null && !(parameterObject instanceof Map)) {
+        parameterMetaObject = configuration.newMetaObject(parameterObject);
+      }
       if (parameterMetaObject != null) {
         // issue #61 do not modify the context when reading
         return parameterMetaObject.getValue(strKey);
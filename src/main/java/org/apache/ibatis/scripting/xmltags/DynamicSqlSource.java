@@ -15,9 +15,20 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.apache.ibatis.builder.SqlSourceBuilder;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.impl.BoundedConcurrentCache;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.reflection.property.PropertyTokenizer;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -27,24 +38,143 @@ import org.apache.ibatis.session.Configuration;
  */
 public class DynamicSqlSource implements SqlSource {
 
+    // an execution with a large collection does not make the next ones allocate large bindings
+    private static final int MAX_EXPECTED_BINDINGS = 64;
+
     private final Configuration configuration;
     private final SqlNode rootSqlNode;
+    // parsed sql sources by generated sql and parameter types, null when disabled
+    private final Cache sqlSourceCache;
+    // the most bindings an execution has made, used to size the bindings of the next ones
+    private volatile int expectedBindings;
 
     public DynamicSqlSource(Configuration configuration, SqlNode rootSqlNode) {
         this.configuration = configuration;
         this.rootSqlNode = rootSqlNode;
+        this.sqlSourceCache = BoundedConcurrentCache.newCache("DynamicSqlSource", configuration.getDynamicSqlCacheSize());
     }
 
     @Override
     public BoundSql getBoundSql(Object parameterObject) {
-        DynamicContext context = new DynamicContext(configuration, parameterObject);
+        DynamicContext context = new DynamicContext(configuration, parameterObject, expectedBindings);
         rootSqlNode.apply(context);
-        SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
+        int bindings = Math.min(context.getBindings().size() - 2, MAX_EXPECTED_BINDINGS);
+        if (bindings > expectedBindings) {
+            expectedBindings = bindings;
+        }
         Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
-        SqlSource sqlSource = sqlSourceParser.parse(context.getSql(), parameterType, context.getBindings());
+        List<Object> positionalParameters = context.getPositionalParameters();
+        SqlSource sqlSource = getSqlSource(context.getSql(), parameterType, context.getBindings(), positionalParameters);
         BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
         context.getBindings().forEach(boundSql::setAdditionalParameter);
+        if (!positionalParameters.isEmpty()) {
+            bindPositionalParameters(boundSql, positionalParameters);
+        }
         return boundSql;
     }
 
+    private static void bindPositionalParameters(BoundSql boundSql, List<Object> positionalParameters) {
+        List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+        for (int i = 0; i < parameterMappings.size(); i++) {
+            int position = ForEachSqlNode.getParameterPosition(parameterMappings.get(i).getProperty());
+            if (position >= 0 && position < positionalParameters.size()) {
+                boundSql.setParameterValue(i, positionalParameters.get(position));
+            }
+        }
+    }
+
+    private SqlSource getSqlSource(String sql, Class<?> parameterType, Map<String, Object> bindings, List<Object> positionalParameters) {
+        if (sqlSourceCache == null) {
+            return parse(sql, parameterType, bindings, positionalParameters);
+        }
+        // the types of the #{} parameters depend on the classes of the bindings
+        CacheKey cacheKey = new CacheKey();
+        cacheKey.update(sql);
+        cacheKey.update(parameterType);
+        for (Map.Entry<String, Object> binding : bindings.entrySet()) {
+            cacheKey.update(binding.getKey());
+            cacheKey.update(binding.getValue() == null ? null : binding.getValue().getClass());
+        }
+        for (Object value : positionalParameters) {
+            cacheKey.update(value == null ? null : value.getClass());
+        }
+        SqlSource sqlSource = (SqlSource) sqlSourceCache.getObject(cacheKey);
+        if (sqlSource == null) {
+            sqlSource = parse(sql, parameterType, bindings, positionalParameters);
+            if (isCacheable(sqlSource, bindings)) {
+                sqlSourceCache.putObject(cacheKey, sqlSource);
+            }
+        }
+        return sqlSource;
+    }
+
+    private SqlSource parse(String sql, Class<?> parameterType, Map<String, Object> bindings, List<Object> positionalParameters) {
+        SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
+        return sqlSourceParser.parse(sql, parameterType,
+            positionalParameters.isEmpty() ? bindings : new PositionalBindings(bindings, positionalParameters));
+    }
+
+    /**
+     * Parameters that are properties of maps, collections or nested values of a binding
+     * get their types from those values rather than from the classes in the cache key.
+     */
+    private boolean isCacheable(SqlSource sqlSource, Map<String, Object> bindings) {
+        for (ParameterMapping parameterMapping : sqlSource.getBoundSql(null).getParameterMappings()) {
+            String property = parameterMapping.getProperty();
+            if (property == null) {
+                continue;
+            }
+            PropertyTokenizer prop = new PropertyTokenizer(property);
+            if (!bindings.containsKey(prop.getName())) {
+                continue;
+            }
+            if (prop.getIndex() != null) {
+                return false;
+            }
+            String children = prop.getChildren();
+            if (children != null) {
+                Object value = bindings.get(prop.getName());
+                if (value instanceof Map || value instanceof Collection || (value != null && value.getClass().isArray())
+                    || children.indexOf('.') >= 0 || children.indexOf('[') >= 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The bindings together with the parameters bound by position, whose types are resolved from their values too.
+     */
+    private static class PositionalBindings extends AbstractMap<String, Object> {
+        private final Map<String, Object> bindings;
+        private final List<Object> positionalParameters;
+
+        PositionalBindings(Map<String, Object> bindings, List<Object> positionalParameters) {
+            this.bindings = bindings;
+            this.positionalParameters = positionalParameters;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return getPosition(key) >= 0 || bindings.containsKey(key);
+        }
+
+        @Override
+        public Object get(Object key) {
+            int position = getPosition(key);
+            return position >= 0 ? positionalParameters.get(position) : bindings.get(key);
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return bindings.entrySet();
+        }
+
+        private int getPosition(Object key) {
+            int position = key instanceof String ? ForEachSqlNode.getParameterPosition((String) key) : -1;
+            return position < positionalParameters.size() ? position : -1;
+        }
+    }
+
 }
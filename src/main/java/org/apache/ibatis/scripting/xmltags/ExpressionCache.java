@@ -0,0 +1,170 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import ognl.Ognl;
+import ognl.OgnlException;
+
+/**
+ * A bounded cache of the parsed forms of the expressions of dynamic SQL: their {@link CompiledExpression} and their
+ * OGNL tree. Each expression is parsed once while it is cached.
+ * <p>
+ * When the cache is full, expressions that were not used since the cache was last swept are evicted first. The cache
+ * counts its hits, misses and evictions.
+ *
+ * @since 3.5.2
+ */
+public final class ExpressionCache {
+
+  /**
+   * The cache of the expressions that are not evaluated for a configuration.
+   */
+  static final ExpressionCache DEFAULT = new ExpressionCache(4096);
+
+  private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+  private final int maxSize;
+  private final AtomicBoolean evicting = new AtomicBoolean();
+  // where the last sweep stopped, only used by the thread that is evicting
+  private Iterator<Entry> hand;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * @param maxSize how many expressions the cache keeps, 0 keeps none
+   */
+  public ExpressionCache(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public int getSize() {
+    return entries.size();
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  public void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Returns the compiled expression, or null if the expression is not part of the subset {@link CompiledExpression}
+   * supports.
+   */
+  CompiledExpression getCompiledExpression(String expression) {
+    return getEntry(expression).compiledExpression;
+  }
+
+  Object getOgnlExpression(String expression) throws OgnlException {
+    return getEntry(expression).getOgnlExpression();
+  }
+
+  private Entry getEntry(String expression) {
+    Entry entry = entries.get(expression);
+    if (entry != null) {
+      // a volatile read is cheaper than a write on every hit
+      if (!entry.used) {
+        entry.used = true;
+      }
+      hits.increment();
+      return entry;
+    }
+    misses.increment();
+    if (maxSize <= 0) {
+      return new Entry(expression);
+    }
+    entry = entries.computeIfAbsent(expression, Entry::new);
+    if (entries.size() > maxSize) {
+      evict();
+    }
+    return entry;
+  }
+
+  private void evict() {
+    // one thread sweeps at a time, the others do not wait for it
+    if (!evicting.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      Iterator<Entry> iterator = hand;
+      while (entries.size() > maxSize) {
+        if (iterator == null || !iterator.hasNext()) {
+          iterator = entries.values().iterator();
+          if (!iterator.hasNext()) {
+            break;
+          }
+        }
+        Entry entry = iterator.next();
+        if (entry.used) {
+          // used since the last sweep, kept for another one
+          entry.used = false;
+        } else {
+          iterator.remove();
+          evictions.increment();
+        }
+      }
+      hand = iterator;
+    } finally {
+      evicting.set(false);
+    }
+  }
+
+  private static final class Entry {
+    private final String expression;
+    private final CompiledExpression compiledExpression;
+    private volatile Object ognlExpression;
+    private volatile boolean used = true;
+
+    Entry(String expression) {
+      this.expression = expression;
+      this.compiledExpression = CompiledExpression.parse(expression);
+    }
+
+    Object getOgnlExpression() throws OgnlException {
+      Object node = ognlExpression;
+      if (node == null) {
+        synchronized (this) {
+          node = ognlExpression;
+          if (node == null) {
+            node = Ognl.parseExpression(expression);
+            ognlExpression = node;
+          }
+        }
+      }
+      return node;
+    }
+  }
+
+}
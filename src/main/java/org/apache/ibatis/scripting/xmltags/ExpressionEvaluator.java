@@ -29,7 +29,10 @@ import org.apache.ibatis.builder.BuilderException;
 public class ExpressionEvaluator {
 
   public boolean evaluateBoolean(String expression, Object parameterObject) {
-    Object value = OgnlCache.getValue(expression, parameterObject);
+    return toBoolean(getValue(expression, parameterObject));
+  }
+
+  static boolean toBoolean(Object value) {
     if (value instanceof Boolean) {
       return (Boolean) value;
     }
@@ -40,7 +43,7 @@ public class ExpressionEvaluator {
   }
 
   public Iterable<?> evaluateIterable(String expression, Object parameterObject) {
-    Object value = OgnlCache.getValue(expression, parameterObject);
+    Object value = getValue(expression, parameterObject);
     if (value == null) {
       throw new BuilderException("The expression '" + expression + "' evaluated to a null value.");
     }
@@ -65,4 +68,26 @@ public class ExpressionEvaluator {
     throw new BuilderException("Error evaluating expression '" + expression + "'.  Return value (" + value + ") was not iterable.");
   }
 
+  /**
+   * Evaluates an expression against the bindings of a dynamic context with its {@link CompiledExpression} when it has
+   * one, and with OGNL otherwise. The parsed expressions are cached in the expression cache of the configuration of
+   * the context.
+   */
+  @SuppressWarnings("unchecked")
+  static Object getValue(String expression, Object parameterObject) {
+    if (parameterObject instanceof DynamicContext.ContextMap) {
+      final ExpressionCache expressionCache = ((DynamicContext.ContextMap) parameterObject).getExpressionCache();
+      final CompiledExpression compiledExpression = expressionCache.getCompiledExpression(expression);
+      if (compiledExpression != null) {
+        try {
+          return compiledExpression.getValue((Map<String, Object>) parameterObject);
+        } catch (CompiledExpression.UnsupportedExpressionException e) {
+          // OGNL evaluates what the compiled expression cannot
+        }
+      }
+      return OgnlCache.getValue(expressionCache, expression, parameterObject);
+    }
+    return OgnlCache.getValue(expression, parameterObject);
+  }
+
 }
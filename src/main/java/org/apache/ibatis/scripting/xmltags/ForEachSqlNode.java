@@ -15,6 +15,9 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.ibatis.parsing.GenericTokenParser;
@@ -34,9 +37,17 @@ public class ForEachSqlNode implements SqlNode {
   private final String separator;
   private final String item;
   private final String index;
+  private final boolean padding;
   private final Configuration configuration;
 
   public ForEachSqlNode(Configuration configuration, SqlNode contents, String collectionExpression, String index, String item, String open, String close, String separator) {
+    this(configuration, contents, collectionExpression, index, item, open, close, separator, false);
+  }
+
+  /**
+   * @since 3.5.2
+   */
+  public ForEachSqlNode(Configuration configuration, SqlNode contents, String collectionExpression, String index, String item, String open, String close, String separator, boolean padding) {
     this.evaluator = new ExpressionEvaluator();
     this.collectionExpression = collectionExpression;
     this.contents = contents;
@@ -45,17 +56,22 @@ public class ForEachSqlNode implements SqlNode {
     this.separator = separator;
     this.index = index;
     this.item = item;
+    this.padding = padding;
     this.configuration = configuration;
   }
 
   @Override
   public boolean apply(DynamicContext context) {
     Map<String, Object> bindings = context.getBindings();
-    final Iterable<?> iterable = evaluator.evaluateIterable(collectionExpression, bindings);
+    Iterable<?> iterable = evaluator.evaluateIterable(collectionExpression, bindings);
     if (!iterable.iterator().hasNext()) {
       return true;
     }
+    if (padding) {
+      iterable = pad(iterable, configuration.getForEachPaddingMaxSize());
+    }
     boolean first = true;
+    boolean positionalBinding = configuration.isPositionalForEachBindingEnabled();
     applyOpen(context);
     int i = 0;
     for (Object o : iterable) {
@@ -65,18 +81,27 @@ public class ForEachSqlNode implements SqlNode {
       } else {
         context = new PrefixedContext(context, separator);
       }
-      int uniqueNumber = context.getUniqueNumber();
+      Object indexValue;
+      Object itemValue;
       // Issue #709
       if (o instanceof Map.Entry) {
         @SuppressWarnings("unchecked")
         Map.Entry<Object, Object> mapEntry = (Map.Entry<Object, Object>) o;
-        applyIndex(context, mapEntry.getKey(), uniqueNumber);
-        applyItem(context, mapEntry.getValue(), uniqueNumber);
+        indexValue = mapEntry.getKey();
+        itemValue = mapEntry.getValue();
       } else {
-        applyIndex(context, i, uniqueNumber);
-        applyItem(context, o, uniqueNumber);
+        indexValue = i;
+        itemValue = o;
+      }
+      if (positionalBinding) {
+        bindIteration(context, indexValue, itemValue);
+        contents.apply(new PositionalDynamicContext(configuration, context, index, item, indexValue, itemValue));
+      } else {
+        int uniqueNumber = context.getUniqueNumber();
+        applyIndex(context, indexValue, uniqueNumber);
+        applyItem(context, itemValue, uniqueNumber);
+        contents.apply(new FilteredDynamicContext(configuration, context, index, item, uniqueNumber));
       }
-      contents.apply(new FilteredDynamicContext(configuration, context, index, item, uniqueNumber));
       if (first) {
         first = !((PrefixedContext) context).isPrefixApplied();
       }
@@ -89,6 +114,128 @@ public class ForEachSqlNode implements SqlNode {
     return true;
   }
 
+  String getCollectionExpression() {
+    return collectionExpression;
+  }
+
+  SqlNode getContents() {
+    return contents;
+  }
+
+  String getOpen() {
+    return open;
+  }
+
+  String getClose() {
+    return close;
+  }
+
+  String getSeparator() {
+    return separator;
+  }
+
+  String getItem() {
+    return item;
+  }
+
+  String getIndex() {
+    return index;
+  }
+
+  boolean isPadding() {
+    return padding;
+  }
+
+  Configuration getConfiguration() {
+    return configuration;
+  }
+
+  /**
+   * Repeats the last element of a collection until its size is a power of two, or the maximum size, so that
+   * collections of close sizes generate the same SQL. The repeated elements are entries of the index and the item of
+   * the last element, so that they keep its index.
+   */
+  static List<Object> pad(Iterable<?> iterable, int maxSize) {
+    List<Object> elements = new ArrayList<>();
+    iterable.forEach(elements::add);
+    int size = elements.size();
+    int paddedSize = Integer.highestOneBit(size) == size ? size : Math.min(Integer.highestOneBit(size) << 1, maxSize);
+    if (paddedSize <= size) {
+      return elements;
+    }
+    Object last = elements.get(size - 1);
+    Object padding = last instanceof Map.Entry ? last : new AbstractMap.SimpleImmutableEntry<>(size - 1, last);
+    while (elements.size() < paddedSize) {
+      elements.add(padding);
+    }
+    return elements;
+  }
+
+  private void bindIteration(DynamicContext context, Object indexValue, Object itemValue) {
+    if (index != null) {
+      context.bind(index, indexValue);
+    }
+    if (item != null) {
+      context.bind(item, itemValue);
+    }
+  }
+
+  /**
+   * Rewrites the content of a parameter of the item or the index of an iteration, named {@code name}, to a parameter
+   * bound by position, or returns null if the parameter is not one of theirs.
+   */
+  static String bindPositionalParameter(DynamicContext context, Configuration configuration, String content, String name, Object value) {
+    if (name == null) {
+      return null;
+    }
+    int start = 0;
+    while (start < content.length() && isWhitespace(content.charAt(start))) {
+      start++;
+    }
+    int end = start + name.length();
+    if (!content.startsWith(name, start)
+        || end < content.length() && content.charAt(end) != '.' && !isEndOfName(content.charAt(end))) {
+      return null;
+    }
+    Object parameterValue = value;
+    if (end < content.length() && content.charAt(end) == '.') {
+      int propertyEnd = end + 1;
+      while (propertyEnd < content.length() && !isEndOfName(content.charAt(propertyEnd))) {
+        propertyEnd++;
+      }
+      parameterValue = value == null ? null : configuration.newMetaObject(value).getValue(content.substring(end + 1, propertyEnd));
+      end = propertyEnd;
+    }
+    return ITEM_PREFIX + context.addPositionalParameter(parameterValue) + content.substring(end);
+  }
+
+  /**
+   * Returns the position of a parameter bound by {@link #bindPositionalParameter}, or -1 if the property is not the
+   * one of such a parameter.
+   */
+  static int getParameterPosition(String property) {
+    if (property == null || property.length() == ITEM_PREFIX.length() || !property.startsWith(ITEM_PREFIX)) {
+      return -1;
+    }
+    int position = 0;
+    for (int i = ITEM_PREFIX.length(); i < property.length(); i++) {
+      char c = property.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      position = position * 10 + c - '0';
+    }
+    return position;
+  }
+
+  private static boolean isEndOfName(char c) {
+    return c == ',' || c == ':' || isWhitespace(c);
+  }
+
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+
   private void applyIndex(DynamicContext context, Object o, int i) {
     if (index != null) {
       context.bind(index, o);
@@ -166,9 +313,83 @@ public class ForEachSqlNode implements SqlNode {
       return delegate.getUniqueNumber();
     }
 
+    @Override
+    public int addPositionalParameter(Object value) {
+      return delegate.addPositionalParameter(value);
+    }
+
+    @Override
+    public List<Object> getPositionalParameters() {
+      return delegate.getPositionalParameters();
+    }
+
   }
 
 
+  private static class PositionalDynamicContext extends DynamicContext {
+    private final Configuration configuration;
+    private final DynamicContext delegate;
+    private final String itemIndex;
+    private final String item;
+    private final Object indexValue;
+    private final Object itemValue;
+
+    public PositionalDynamicContext(Configuration configuration, DynamicContext delegate, String itemIndex, String item,
+        Object indexValue, Object itemValue) {
+      super(configuration, null);
+      this.configuration = configuration;
+      this.delegate = delegate;
+      this.itemIndex = itemIndex;
+      this.item = item;
+      this.indexValue = indexValue;
+      this.itemValue = itemValue;
+    }
+
+    @Override
+    public Map<String, Object> getBindings() {
+      return delegate.getBindings();
+    }
+
+    @Override
+    public void bind(String name, Object value) {
+      delegate.bind(name, value);
+    }
+
+    @Override
+    public String getSql() {
+      return delegate.getSql();
+    }
+
+    @Override
+    public void appendSql(String sql) {
+      GenericTokenParser parser = new GenericTokenParser("#{", "}", content -> {
+        String newContent = bindPositionalParameter(delegate, configuration, content, item, itemValue);
+        if (newContent == null) {
+          newContent = bindPositionalParameter(delegate, configuration, content, itemIndex, indexValue);
+        }
+        return "#{" + (newContent == null ? content : newContent) + "}";
+      });
+
+      delegate.appendSql(parser.parse(sql));
+    }
+
+    @Override
+    public int getUniqueNumber() {
+      return delegate.getUniqueNumber();
+    }
+
+    @Override
+    public int addPositionalParameter(Object value) {
+      return delegate.addPositionalParameter(value);
+    }
+
+    @Override
+    public List<Object> getPositionalParameters() {
+      return delegate.getPositionalParameters();
+    }
+
+  }
+
   private class PrefixedContext extends DynamicContext {
     private final DynamicContext delegate;
     private final String prefix;
@@ -213,6 +434,16 @@ public class ForEachSqlNode implements SqlNode {
     public int getUniqueNumber() {
       return delegate.getUniqueNumber();
     }
+
+    @Override
+    public int addPositionalParameter(Object value) {
+      return delegate.addPositionalParameter(value);
+    }
+
+    @Override
+    public List<Object> getPositionalParameters() {
+      return delegate.getPositionalParameters();
+    }
   }
 
 }
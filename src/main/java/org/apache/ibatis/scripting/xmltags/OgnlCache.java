@@ -16,7 +16,6 @@
 package org.apache.ibatis.scripting.xmltags;
 
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import ognl.Ognl;
 import ognl.OgnlException;
@@ -25,6 +24,9 @@ import org.apache.ibatis.builder.BuilderException;
 
 /**
  * Caches OGNL parsed expressions.
+ * <p>
+ * Expressions evaluated against the bindings of a dynamic context are cached in the {@link ExpressionCache} of its
+ * configuration, and the others in a cache shared by all configurations.
  *
  * @author Eduardo Macarron
  *
@@ -34,28 +36,22 @@ public final class OgnlCache {
 
   private static final OgnlMemberAccess MEMBER_ACCESS = new OgnlMemberAccess();
   private static final OgnlClassResolver CLASS_RESOLVER = new OgnlClassResolver();
-  private static final Map<String, Object> expressionCache = new ConcurrentHashMap<>();
 
   private OgnlCache() {
     // Prevent Instantiation of Static Class
   }
 
   public static Object getValue(String expression, Object root) {
+    return getValue(ExpressionCache.DEFAULT, expression, root);
+  }
+
+  static Object getValue(ExpressionCache expressionCache, String expression, Object root) {
     try {
       Map context = Ognl.createDefaultContext(root, MEMBER_ACCESS, CLASS_RESOLVER, null);
-      return Ognl.getValue(parseExpression(expression), context, root);
+      return Ognl.getValue(expressionCache.getOgnlExpression(expression), context, root);
     } catch (OgnlException e) {
       throw new BuilderException("Error evaluating expression '" + expression + "'. Cause: " + e, e);
     }
   }
 
-  private static Object parseExpression(String expression) throws OgnlException {
-    Object node = expressionCache.get(expression);
-    if (node == null) {
-      node = Ognl.parseExpression(expression);
-      expressionCache.put(expression, node);
-    }
-    return node;
-  }
-
 }
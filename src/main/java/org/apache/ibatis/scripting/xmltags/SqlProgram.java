@@ -0,0 +1,529 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.ibatis.parsing.GenericTokenParser;
+import org.apache.ibatis.parsing.TokenHandler;
+import org.apache.ibatis.parsing.TokenizedText;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * A tree of the dynamic SQL nodes built by {@link XMLScriptBuilder}, compiled into a flat list of instructions that
+ * render the statement into a single {@link StringBuilder}.
+ * <p>
+ * Conditions and loops are jumps between instructions, and the text of {@code <trim>}, {@code <where>} and
+ * {@code <set>} elements is trimmed in place in the builder instead of being buffered by nested dynamic contexts.
+ * The program generates the same SQL and bindings as the tree it was compiled from.
+ *
+ * @since 3.5.2
+ */
+final class SqlProgram implements SqlNode {
+
+  private static final ExpressionEvaluator EVALUATOR = new ExpressionEvaluator();
+  // the buffer of the last rendering of each thread, taken by a rendering so that nested ones get their own
+  private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<>();
+  private static final int MAX_BUFFER_CAPACITY = 8192;
+  private static final GenericTokenParser PARAMETER_TOKENIZER = new GenericTokenParser("#{", "}", null);
+
+  private final Instruction[] instructions;
+
+  private SqlProgram(List<Instruction> instructions) {
+    this.instructions = instructions.toArray(new Instruction[0]);
+  }
+
+  /**
+   * Returns the program of a tree, or null if the tree has nodes of other types than the ones of this package, which
+   * the program cannot run.
+   */
+  static SqlProgram compile(SqlNode rootSqlNode) {
+    Compiler compiler = new Compiler();
+    return compiler.compile(rootSqlNode) ? new SqlProgram(compiler.instructions) : null;
+  }
+
+  @Override
+  public boolean apply(DynamicContext context) {
+    StringBuilder sql = BUFFER.get();
+    if (sql == null) {
+      sql = new StringBuilder();
+    } else {
+      BUFFER.set(null);
+    }
+    try {
+      Renderer renderer = new Renderer(context, sql);
+      int pc = 0;
+      while (pc < instructions.length) {
+        pc = instructions[pc].execute(renderer, pc);
+      }
+      context.appendSql(sql.toString());
+    } finally {
+      if (sql.capacity() <= MAX_BUFFER_CAPACITY) {
+        sql.setLength(0);
+        BUFFER.set(sql);
+      }
+    }
+    return true;
+  }
+
+  private static final class Compiler {
+    private final List<Instruction> instructions = new ArrayList<>();
+    private int loops;
+
+    boolean compile(SqlNode node) {
+      Class<?> type = node.getClass();
+      if (type == MixedSqlNode.class) {
+        for (SqlNode child : ((MixedSqlNode) node).getContents()) {
+          if (!compile(child)) {
+            return false;
+          }
+        }
+      } else if (type == StaticTextSqlNode.class) {
+        String text = ((StaticTextSqlNode) node).getText();
+        // the parameters of text in a loop are itemized on each iteration, find them once
+        TokenizedText parameters = loops > 0 ? PARAMETER_TOKENIZER.tokenize(text) : null;
+        instructions.add(new Text(text, parameters != null && parameters.hasTokens() ? parameters : null));
+      } else if (type == TextSqlNode.class) {
+        instructions.add(new DynamicText((TextSqlNode) node));
+      } else if (type == VarDeclSqlNode.class) {
+        instructions.add(new Bind((VarDeclSqlNode) node));
+      } else if (type == IfSqlNode.class) {
+        IfSqlNode ifSqlNode = (IfSqlNode) node;
+        int test = reserve();
+        if (!compile(ifSqlNode.getContents())) {
+          return false;
+        }
+        instructions.set(test, new Test(ifSqlNode.getTest(), instructions.size()));
+      } else if (type == ChooseSqlNode.class) {
+        return compileChoose((ChooseSqlNode) node);
+      } else if (type == TrimSqlNode.class || type == WhereSqlNode.class || type == SetSqlNode.class) {
+        TrimSqlNode trimSqlNode = (TrimSqlNode) node;
+        instructions.add(new TrimStart());
+        if (!compile(trimSqlNode.getContents())) {
+          return false;
+        }
+        instructions.add(new TrimEnd(trimSqlNode));
+      } else if (type == ForEachSqlNode.class) {
+        return compileForEach((ForEachSqlNode) node);
+      } else {
+        return false;
+      }
+      return true;
+    }
+
+    private boolean compileChoose(ChooseSqlNode chooseSqlNode) {
+      List<Integer> jumps = new ArrayList<>();
+      for (SqlNode when : chooseSqlNode.getIfSqlNodes()) {
+        if (when.getClass() != IfSqlNode.class) {
+          return false;
+        }
+        IfSqlNode ifSqlNode = (IfSqlNode) when;
+        int test = reserve();
+        if (!compile(ifSqlNode.getContents())) {
+          return false;
+        }
+        jumps.add(reserve());
+        instructions.set(test, new Test(ifSqlNode.getTest(), instructions.size()));
+      }
+      if (chooseSqlNode.getDefaultSqlNode() != null && !compile(chooseSqlNode.getDefaultSqlNode())) {
+        return false;
+      }
+      for (int jump : jumps) {
+        instructions.set(jump, new Jump(instructions.size()));
+      }
+      return true;
+    }
+
+    private boolean compileForEach(ForEachSqlNode forEachSqlNode) {
+      ForEachStart start;
+      try {
+        start = new ForEachStart(forEachSqlNode);
+      } catch (PatternSyntaxException e) {
+        // the tree fails on the first parameter of such a loop, let it
+        return false;
+      }
+      int startIndex = instructions.size();
+      instructions.add(start);
+      loops++;
+      if (!compile(forEachSqlNode.getContents())) {
+        return false;
+      }
+      loops--;
+      instructions.add(new ForEachEnd(start, startIndex + 1));
+      start.exit = instructions.size();
+      return true;
+    }
+
+    private int reserve() {
+      instructions.add(null);
+      return instructions.size() - 1;
+    }
+  }
+
+  /**
+   * The state of a rendering. Text is appended to the builder through the open {@code <trim>} and {@code <foreach>}
+   * elements the way it is through their dynamic contexts, and text of top level nodes is separated by a space.
+   */
+  private static final class Renderer {
+    private final DynamicContext context;
+    private final StringBuilder sql;
+    private final List<Frame> frames = new ArrayList<>();
+    private int segments;
+
+    Renderer(DynamicContext context, StringBuilder sql) {
+      this.context = context;
+      this.sql = sql;
+    }
+
+    void append(String text) {
+      append(frames.size() - 1, text, null);
+    }
+
+    /**
+     * Appends a text whose parameters were found when the program was compiled.
+     */
+    void append(String text, TokenizedText parameters) {
+      append(frames.size() - 1, text, parameters);
+    }
+
+    private void append(int level, String text, TokenizedText parameters) {
+      for (; level >= 0; level--) {
+        Frame frame = frames.get(level);
+        if (frame instanceof TrimFrame) {
+          sql.append(text);
+          return;
+        }
+        LoopFrame loop = (LoopFrame) frame;
+        text = parameters != null ? parameters.parse(loop.parameterHandler()) : loop.itemize(text);
+        parameters = null;
+        if (!loop.prefixApplied && text.trim().length() > 0) {
+          append(level - 1, loop.prefix, null);
+          loop.prefixApplied = true;
+        }
+      }
+      if (segments++ > 0) {
+        sql.append(' ');
+      }
+      sql.append(text);
+    }
+
+    void startTrim() {
+      if (frames.isEmpty() && segments++ > 0) {
+        sql.append(' ');
+      }
+      frames.add(new TrimFrame(sql.length()));
+    }
+
+    void endTrim(TrimSqlNode trimSqlNode) {
+      TrimFrame frame = (TrimFrame) frames.remove(frames.size() - 1);
+      trimSqlNode.trim(sql, frame.start);
+      if (!frames.isEmpty() && frames.get(frames.size() - 1) instanceof LoopFrame) {
+        // the text of the element is itemized by the loop it is in
+        String text = sql.substring(frame.start);
+        sql.setLength(frame.start);
+        append(text);
+      }
+    }
+  }
+
+  private abstract static class Frame {
+  }
+
+  private static final class TrimFrame extends Frame {
+    private final int start;
+
+    TrimFrame(int start) {
+      this.start = start;
+    }
+  }
+
+  private static final class LoopFrame extends Frame {
+    private final ForEachStart forEach;
+    private final DynamicContext context;
+    private final Iterator<?> iterator;
+    private final boolean positionalBinding;
+    private int index;
+    private Object indexValue;
+    private Object itemValue;
+    private boolean first = true;
+    private String prefix;
+    private boolean prefixApplied;
+    private int uniqueNumber;
+
+    LoopFrame(ForEachStart forEach, DynamicContext context, Iterator<?> iterator) {
+      this.forEach = forEach;
+      this.context = context;
+      this.iterator = iterator;
+      this.positionalBinding = forEach.configuration.isPositionalForEachBindingEnabled();
+    }
+
+    boolean next() {
+      if (!iterator.hasNext()) {
+        return false;
+      }
+      Object o = iterator.next();
+      prefix = first || forEach.separator == null ? "" : forEach.separator;
+      prefixApplied = false;
+      // Issue #709
+      if (o instanceof Map.Entry) {
+        Map.Entry<?, ?> mapEntry = (Map.Entry<?, ?>) o;
+        indexValue = mapEntry.getKey();
+        itemValue = mapEntry.getValue();
+      } else {
+        indexValue = index;
+        itemValue = o;
+      }
+      if (!positionalBinding) {
+        uniqueNumber = context.getUniqueNumber();
+      }
+      bind();
+      return true;
+    }
+
+    void endIteration() {
+      if (first) {
+        first = !prefixApplied;
+      }
+      index++;
+    }
+
+    private void bind() {
+      if (forEach.index != null) {
+        context.bind(forEach.index, indexValue);
+        if (!positionalBinding) {
+          context.bind(forEach.indexPrefix + uniqueNumber, indexValue);
+        }
+      }
+      if (forEach.item != null) {
+        context.bind(forEach.item, itemValue);
+        if (!positionalBinding) {
+          context.bind(forEach.itemPrefix + uniqueNumber, itemValue);
+        }
+      }
+    }
+
+    String itemize(String text) {
+      if (text == null) {
+        return "";
+      }
+      if (text.indexOf("#{") == -1) {
+        return text;
+      }
+      return new GenericTokenParser("#{", "}", parameterHandler()).parse(text);
+    }
+
+    TokenHandler parameterHandler() {
+      if (positionalBinding) {
+        return content -> {
+          String newContent = ForEachSqlNode.bindPositionalParameter(context, forEach.configuration, content, forEach.item, itemValue);
+          if (newContent == null) {
+            newContent = ForEachSqlNode.bindPositionalParameter(context, forEach.configuration, content, forEach.index, indexValue);
+          }
+          return "#{" + (newContent == null ? content : newContent) + "}";
+        };
+      }
+      return content -> {
+        String newContent = forEach.itemPattern.matcher(content).replaceFirst(forEach.itemPrefix + uniqueNumber);
+        if (forEach.indexPattern != null && newContent.equals(content)) {
+          newContent = forEach.indexPattern.matcher(content).replaceFirst(forEach.indexPrefix + uniqueNumber);
+        }
+        return "#{" + newContent + "}";
+      };
+    }
+  }
+
+  private abstract static class Instruction {
+    /**
+     * Executes the instruction and returns the index of the next one.
+     */
+    abstract int execute(Renderer renderer, int pc);
+  }
+
+  private static final class Text extends Instruction {
+    private final String text;
+    private final TokenizedText parameters;
+
+    Text(String text, TokenizedText parameters) {
+      this.text = text;
+      this.parameters = parameters;
+    }
+
+    @Override
+    int execute(Renderer renderer, int pc) {
+      renderer.append(text, parameters);
+      return pc + 1;
+    }
+  }
+
+  private static final class DynamicText extends Instruction {
+    private final TextSqlNode textSqlNode;
+
+    DynamicText(TextSqlNode textSqlNode) {
+      this.textSqlNode = textSqlNode;
+    }
+
+    @Override
+    int execute(Renderer renderer, int pc) {
+      renderer.append(textSqlNode.parse(renderer.context));
+      return pc + 1;
+    }
+  }
+
+  private static final class Bind extends Instruction {
+    private final VarDeclSqlNode varDeclSqlNode;
+
+    Bind(VarDeclSqlNode varDeclSqlNode) {
+      this.varDeclSqlNode = varDeclSqlNode;
+    }
+
+    @Override
+    int execute(Renderer renderer, int pc) {
+      varDeclSqlNode.apply(renderer.context);
+      return pc + 1;
+    }
+  }
+
+  private static final class Test extends Instruction {
+    private final String test;
+    private final int otherwise;
+
+    Test(String test, int otherwise) {
+      this.test = test;
+      this.otherwise = otherwise;
+    }
+
+    @Override
+    int execute(Renderer renderer, int pc) {
+      return EVALUATOR.evaluateBoolean(test, renderer.context.getBindings()) ? pc + 1 : otherwise;
+    }
+  }
+
+  private static final class Jump extends Instruction {
+    private final int target;
+
+    Jump(int target) {
+      this.target = target;
+    }
+
+    @Override
+    int execute(Renderer renderer, int pc) {
+      return target;
+    }
+  }
+
+  private static final class TrimStart extends Instruction {
+    @Override
+    int execute(Renderer renderer, int pc) {
+      renderer.startTrim();
+      return pc + 1;
+    }
+  }
+
+  private static final class TrimEnd extends Instruction {
+    private final TrimSqlNode trimSqlNode;
+
+    TrimEnd(TrimSqlNode trimSqlNode) {
+      this.trimSqlNode = trimSqlNode;
+    }
+
+    @Override
+    int execute(Renderer renderer, int pc) {
+      renderer.endTrim(trimSqlNode);
+      return pc + 1;
+    }
+  }
+
+  private static final class ForEachStart extends Instruction {
+    private final Configuration configuration;
+    private final String collectionExpression;
+    private final String open;
+    private final String close;
+    private final String separator;
+    private final String item;
+    private final String index;
+    private final boolean padding;
+    private final String itemPrefix;
+    private final String indexPrefix;
+    private final Pattern itemPattern;
+    private final Pattern indexPattern;
+    private int exit;
+
+    ForEachStart(ForEachSqlNode forEachSqlNode) {
+      this.configuration = forEachSqlNode.getConfiguration();
+      this.collectionExpression = forEachSqlNode.getCollectionExpression();
+      this.open = forEachSqlNode.getOpen();
+      this.close = forEachSqlNode.getClose();
+      this.separator = forEachSqlNode.getSeparator();
+      this.item = forEachSqlNode.getItem();
+      this.index = forEachSqlNode.getIndex();
+      this.padding = forEachSqlNode.isPadding();
+      this.itemPrefix = ForEachSqlNode.ITEM_PREFIX + item + "_";
+      this.indexPrefix = ForEachSqlNode.ITEM_PREFIX + index + "_";
+      this.itemPattern = Pattern.compile("^\\s*" + item + "(?![^.,:\\s])");
+      this.indexPattern = index == null ? null : Pattern.compile("^\\s*" + index + "(?![^.,:\\s])");
+    }
+
+    @Override
+    int execute(Renderer renderer, int pc) {
+      Iterable<?> iterable = EVALUATOR.evaluateIterable(collectionExpression, renderer.context.getBindings());
+      if (!iterable.iterator().hasNext()) {
+        return exit;
+      }
+      if (padding) {
+        iterable = ForEachSqlNode.pad(iterable, configuration.getForEachPaddingMaxSize());
+      }
+      if (open != null) {
+        renderer.append(open);
+      }
+      LoopFrame frame = new LoopFrame(this, renderer.context, iterable.iterator());
+      renderer.frames.add(frame);
+      frame.next();
+      return pc + 1;
+    }
+  }
+
+  private static final class ForEachEnd extends Instruction {
+    private final ForEachStart start;
+    private final int body;
+
+    ForEachEnd(ForEachStart start, int body) {
+      this.start = start;
+      this.body = body;
+    }
+
+    @Override
+    int execute(Renderer renderer, int pc) {
+      LoopFrame frame = (LoopFrame) renderer.frames.get(renderer.frames.size() - 1);
+      frame.endIteration();
+      if (frame.next()) {
+        return body;
+      }
+      renderer.frames.remove(renderer.frames.size() - 1);
+      if (start.close != null) {
+        renderer.append(start.close);
+      }
+      renderer.context.getBindings().remove(start.item);
+      renderer.context.getBindings().remove(start.index);
+      return pc + 1;
+    }
+  }
+
+}
@@ -57,6 +57,83 @@ public class TrimSqlNode implements SqlNode {
     return result;
   }
 
+  SqlNode getContents() {
+    return contents;
+  }
+
+  TrimSqlNode withContents(SqlNode contents) {
+    return new TrimSqlNode(configuration, contents, prefix, prefixesToOverride, suffix, suffixesToOverride);
+  }
+
+  /**
+   * Trims the text of the builder from an offset the way the text buffered by the element is trimmed, without
+   * copying it.
+   */
+  void trim(StringBuilder sql, int start) {
+    int end = sql.length();
+    while (end > start && sql.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    sql.setLength(end);
+    int begin = start;
+    while (begin < end && sql.charAt(begin) <= ' ') {
+      begin++;
+    }
+    sql.delete(start, begin);
+    if (sql.length() == start) {
+      return;
+    }
+    String prefixToRemove = null;
+    if (prefixesToOverride != null) {
+      for (String toRemove : prefixesToOverride) {
+        if (regionMatches(sql, start, start, toRemove)) {
+          prefixToRemove = toRemove;
+          break;
+        }
+      }
+    }
+    String suffixToRemove = null;
+    if (suffixesToOverride != null) {
+      for (String toRemove : suffixesToOverride) {
+        if (regionMatches(sql, start, sql.length() - toRemove.length(), toRemove)
+            || regionMatches(sql, start, sql.length() - toRemove.trim().length(), toRemove.trim())) {
+          suffixToRemove = toRemove;
+          break;
+        }
+      }
+    }
+    if (prefixToRemove != null) {
+      sql.delete(start, start + prefixToRemove.trim().length());
+    }
+    if (prefix != null) {
+      sql.insert(start, ' ');
+      sql.insert(start, prefix);
+    }
+    if (suffixToRemove != null) {
+      int suffixStart = sql.length() - suffixToRemove.trim().length();
+      if (suffixStart < start) {
+        throw new StringIndexOutOfBoundsException(suffixStart - start);
+      }
+      sql.delete(suffixStart, sql.length());
+    }
+    if (suffix != null) {
+      sql.append(' ');
+      sql.append(suffix);
+    }
+  }
+
+  private static boolean regionMatches(StringBuilder sql, int start, int offset, String upperCase) {
+    if (offset < start || offset + upperCase.length() > sql.length()) {
+      return false;
+    }
+    for (int i = 0; i < upperCase.length(); i++) {
+      if (Character.toUpperCase(sql.charAt(offset + i)) != upperCase.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private static List<String> parseOverrides(String overrides) {
     if (overrides != null) {
       final StringTokenizer parser = new StringTokenizer(overrides, "|", false);
@@ -108,6 +185,16 @@ public class TrimSqlNode implements SqlNode {
       return delegate.getUniqueNumber();
     }
 
+    @Override
+    public int addPositionalParameter(Object value) {
+      return delegate.addPositionalParameter(value);
+    }
+
+    @Override
+    public List<Object> getPositionalParameters() {
+      return delegate.getPositionalParameters();
+    }
+
     @Override
     public void appendSql(String sql) {
       sqlBuffer.append(sql);
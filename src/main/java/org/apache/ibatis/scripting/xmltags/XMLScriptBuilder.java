@@ -71,7 +71,15 @@ public class XMLScriptBuilder extends BaseBuilder {
         SqlSource sqlSource;
         // 根据 isDynamic 状态创建不同的 SqlSource
         if (isDynamic) {
-            sqlSource = new DynamicSqlSource(configuration, rootSqlNode);
+            // 折叠只依赖 _databaseId 的 ${} 占位符和 <if>、<when> 条件，折叠后只剩静态文本的语句按静态语句处理
+            rootSqlNode = ConstantFolder.fold(configuration, rootSqlNode);
+            String staticSql = ConstantFolder.getStaticSql(configuration, rootSqlNode);
+            if (staticSql != null) {
+                return new RawSqlSource(configuration, staticSql, parameterType);
+            }
+            // 将 SqlNode 树编译为扁平的指令程序，无法编译时仍使用 SqlNode 树
+            SqlProgram sqlProgram = SqlProgram.compile(rootSqlNode);
+            sqlSource = new DynamicSqlSource(configuration, sqlProgram != null ? sqlProgram : rootSqlNode);
         } else {
             sqlSource = new RawSqlSource(configuration, rootSqlNode, parameterType);
         }
@@ -191,7 +199,8 @@ public class XMLScriptBuilder extends BaseBuilder {
             String open = nodeToHandle.getStringAttribute("open");
             String close = nodeToHandle.getStringAttribute("close");
             String separator = nodeToHandle.getStringAttribute("separator");
-            ForEachSqlNode forEachSqlNode = new ForEachSqlNode(configuration, mixedSqlNode, collection, index, item, open, close, separator);
+            boolean padding = nodeToHandle.getBooleanAttribute("padding", false);
+            ForEachSqlNode forEachSqlNode = new ForEachSqlNode(configuration, mixedSqlNode, collection, index, item, open, close, separator, padding);
             targetContents.add(forEachSqlNode);
         }
     }
@@ -26,6 +26,7 @@ import org.apache.ibatis.cache.decorators.FifoCache;
 import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.decorators.SoftCache;
 import org.apache.ibatis.cache.decorators.WeakCache;
+import org.apache.ibatis.cache.impl.BoundedConcurrentCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.datasource.jndi.JndiDataSourceFactory;
 import org.apache.ibatis.datasource.pooled.PooledDataSourceFactory;
@@ -64,6 +65,7 @@ import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
 import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.scripting.LanguageDriverRegistry;
 import org.apache.ibatis.scripting.defaults.RawLanguageDriver;
+import org.apache.ibatis.scripting.xmltags.ExpressionCache;
 import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
 import org.apache.ibatis.transaction.Transaction;
 import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
@@ -74,6 +76,9 @@ import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiFunction;
 
 /**
@@ -103,6 +108,21 @@ public class Configuration {
     protected Set<String> lazyLoadTriggerMethods = new HashSet<>(Arrays.asList("equals", "clone", "hashCode", "toString"));
     protected Integer defaultStatementTimeout;
     protected Integer defaultFetchSize;
+    protected int nestedSelectBatchSize = 100;
+    protected boolean adaptiveFetchSizeEnabled;
+    protected int adaptiveFetchSizeMin = 10;
+    protected int adaptiveFetchSizeMax = 1000;
+    protected boolean compiledRowMappingEnabled;
+    protected int autoMappingCacheSize = 1024;
+    protected boolean compactNestedRowKeysEnabled;
+    protected boolean compactMapRowsEnabled;
+    protected boolean parallelResultMappingEnabled;
+    protected int parallelResultMappingBatchSize = 1000;
+    protected ExecutorService parallelResultMappingExecutor;
+    protected int dynamicSqlCacheSize = 16;
+    protected boolean positionalForEachBindingEnabled;
+    protected int forEachPaddingMaxSize = 1000;
+    protected int expressionCacheSize = 4096;
     protected ExecutorType defaultExecutorType = ExecutorType.SIMPLE;
     protected AutoMappingBehavior autoMappingBehavior = AutoMappingBehavior.PARTIAL;
     protected AutoMappingUnknownColumnBehavior autoMappingUnknownColumnBehavior = AutoMappingUnknownColumnBehavior.NONE;
@@ -142,6 +162,14 @@ public class Configuration {
      * mapper映射文件的缓存对象实例集合，key为mapper映射文件的命名空间(namespace)
      */
     protected final Map<String, Cache> caches = new StrictMap<>("Caches collection");
+    /**
+     * auto-mapping plans shared by all result set handlers, null if disabled
+     */
+    protected Cache autoMappingCache = BoundedConcurrentCache.newCache("AutoMappings", autoMappingCacheSize);
+    /**
+     * parsed expressions of the dynamic SQL of the statements
+     */
+    protected ExpressionCache expressionCache = new ExpressionCache(expressionCacheSize);
     /**
      * 解析成功的所有的ResultMap集合
      */
@@ -173,6 +201,11 @@ public class Configuration {
      */
     protected final Collection<ResultMapResolver> incompleteResultMaps = new LinkedList<>();
     protected final Collection<MethodResolver> incompleteMethods = new LinkedList<>();
+    /**
+     * Guards the incomplete element collections above. A j.u.c lock rather than monitors on the
+     * collections, since resolving pending elements may be triggered from any statement lookup.
+     */
+    protected final Lock incompleteElementsLock = new ReentrantLock();
 
     /*
      * A map holds cache-ref relationship. The key is the namespace that
@@ -449,6 +482,258 @@ public class Configuration {
         this.defaultFetchSize = defaultFetchSize;
     }
 
+    /**
+     * @since 3.5.2
+     */
+    public int getNestedSelectBatchSize() {
+        return nestedSelectBatchSize;
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public void setNestedSelectBatchSize(int nestedSelectBatchSize) {
+        this.nestedSelectBatchSize = nestedSelectBatchSize;
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public boolean isAdaptiveFetchSizeEnabled() {
+        return adaptiveFetchSizeEnabled;
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public void setAdaptiveFetchSizeEnabled(boolean adaptiveFetchSizeEnabled) {
+        this.adaptiveFetchSizeEnabled = adaptiveFetchSizeEnabled;
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public int getAdaptiveFetchSizeMin() {
+        return adaptiveFetchSizeMin;
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public void setAdaptiveFetchSizeMin(int adaptiveFetchSizeMin) {
+        this.adaptiveFetchSizeMin = adaptiveFetchSizeMin;
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public int getAdaptiveFetchSizeMax() {
+        return adaptiveFetchSizeMax;
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public void setAdaptiveFetchSizeMax(int adaptiveFetchSizeMax) {
+        this.adaptiveFetchSizeMax = adaptiveFetchSizeMax;
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public boolean isCompiledRowMappingEnabled() {
+        return compiledRowMappingEnabled;
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public void setCompiledRowMappingEnabled(boolean compiledRowMappingEnabled) {
+        this.compiledRowMappingEnabled = compiledRowMappingEnabled;
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public int getAutoMappingCacheSize() {
+        return autoMappingCacheSize;
+    }
+
+    /**
+     * Sets how many auto-mapping plans are kept between executions of the statements, 0 disables the cache.
+     *
+     * @since 3.5.2
+     */
+    public void setAutoMappingCacheSize(int autoMappingCacheSize) {
+        this.autoMappingCacheSize = autoMappingCacheSize;
+        this.autoMappingCache = BoundedConcurrentCache.newCache("AutoMappings", autoMappingCacheSize);
+    }
+
+    /**
+     * Gets the auto-mapping plans shared by all result set handlers.
+     *
+     * @return the cache, or null if {@link #getAutoMappingCacheSize()} is 0
+     * @since 3.5.2
+     */
+    public Cache getAutoMappingCache() {
+        return autoMappingCache;
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public boolean isCompactNestedRowKeysEnabled() {
+        return compactNestedRowKeysEnabled;
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public void setCompactNestedRowKeysEnabled(boolean compactNestedRowKeysEnabled) {
+        this.compactNestedRowKeysEnabled = compactNestedRowKeysEnabled;
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public boolean isCompactMapRowsEnabled() {
+        return compactMapRowsEnabled;
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public void setCompactMapRowsEnabled(boolean compactMapRowsEnabled) {
+        this.compactMapRowsEnabled = compactMapRowsEnabled;
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public boolean isParallelResultMappingEnabled() {
+        return parallelResultMappingEnabled;
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public void setParallelResultMappingEnabled(boolean parallelResultMappingEnabled) {
+        this.parallelResultMappingEnabled = parallelResultMappingEnabled;
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public int getParallelResultMappingBatchSize() {
+        return parallelResultMappingBatchSize;
+    }
+
+    /**
+     * Sets how many rows are read before they are handed over to be mapped in parallel.
+     *
+     * @since 3.5.2
+     */
+    public void setParallelResultMappingBatchSize(int parallelResultMappingBatchSize) {
+        this.parallelResultMappingBatchSize = parallelResultMappingBatchSize;
+    }
+
+    /**
+     * @return the executor set with {@link #setParallelResultMappingExecutor(ExecutorService)}, or null
+     * @since 3.5.2
+     */
+    public ExecutorService getParallelResultMappingExecutor() {
+        return parallelResultMappingExecutor;
+    }
+
+    /**
+     * Sets the executor the result objects are created and populated on when result mapping runs in parallel. When
+     * none is set, they are created on a pool of daemon threads dedicated to result mapping and sized to the number
+     * of processors. The executor is not shut down by MyBatis.
+     *
+     * @since 3.5.2
+     */
+    public void setParallelResultMappingExecutor(ExecutorService parallelResultMappingExecutor) {
+        this.parallelResultMappingExecutor = parallelResultMappingExecutor;
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public int getDynamicSqlCacheSize() {
+        return dynamicSqlCacheSize;
+    }
+
+    /**
+     * Sets how many parsed shapes of its generated SQL each dynamic statement keeps, and how many parsed SQL texts each
+     * statement of a deterministic SQL provider keeps, 0 disables the cache.
+     * Applies to statements parsed after the change.
+     *
+     * @since 3.5.2
+     */
+    public void setDynamicSqlCacheSize(int dynamicSqlCacheSize) {
+        this.dynamicSqlCacheSize = dynamicSqlCacheSize;
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public boolean isPositionalForEachBindingEnabled() {
+        return positionalForEachBindingEnabled;
+    }
+
+    /**
+     * Sets whether the parameters of the items and indexes of {@code <foreach>} elements are bound by position
+     * instead of being bound to generated names.
+     *
+     * @since 3.5.2
+     */
+    public void setPositionalForEachBindingEnabled(boolean positionalForEachBindingEnabled) {
+        this.positionalForEachBindingEnabled = positionalForEachBindingEnabled;
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public int getForEachPaddingMaxSize() {
+        return forEachPaddingMaxSize;
+    }
+
+    /**
+     * Sets the number of iterations {@code <foreach padding="true">} never pads a collection past, such as the
+     * maximum number of items of an IN list or of parameters of a statement of the database.
+     *
+     * @since 3.5.2
+     */
+    public void setForEachPaddingMaxSize(int forEachPaddingMaxSize) {
+        this.forEachPaddingMaxSize = forEachPaddingMaxSize;
+    }
+
+    /**
+     * @since 3.5.2
+     */
+    public int getExpressionCacheSize() {
+        return expressionCacheSize;
+    }
+
+    /**
+     * Sets how many parsed expressions of dynamic SQL are kept, 0 disables the cache.
+     *
+     * @since 3.5.2
+     */
+    public void setExpressionCacheSize(int expressionCacheSize) {
+        this.expressionCacheSize = expressionCacheSize;
+        this.expressionCache = new ExpressionCache(expressionCacheSize);
+    }
+
+    /**
+     * Gets the parsed expressions of the dynamic SQL of the statements, with their hit, miss and eviction counts.
+     *
+     * @since 3.5.2
+     */
+    public ExpressionCache getExpressionCache() {
+        return expressionCache;
+    }
+
     public boolean isUseColumnLabel() {
         return useColumnLabel;
     }
@@ -609,6 +894,8 @@ public class Configuration {
             executor = new BatchExecutor(this, transaction);
         } else if (ExecutorType.REUSE == executorType) {
             executor = new ReuseExecutor(this, transaction);
+        } else if (ExecutorType.CONNECTION_REUSE == executorType) {
+            executor = new ConnectionReuseExecutor(this, transaction);
         } else {
             executor = new SimpleExecutor(this, transaction);
         }
@@ -747,6 +1034,15 @@ public class Configuration {
         return incompleteMethods;
     }
 
+    /**
+     * Returns the lock that must be held while resolving or removing incomplete elements.
+     *
+     * @since 3.5.2
+     */
+    public Lock getIncompleteElementsLock() {
+        return incompleteElementsLock;
+    }
+
     public MappedStatement getMappedStatement(String id) {
         return this.getMappedStatement(id, true);
     }
@@ -810,24 +1106,33 @@ public class Configuration {
     protected void buildAllStatements() {
         parsePendingResultMaps();
         if (!incompleteCacheRefs.isEmpty()) {
-            synchronized (incompleteCacheRefs) {
+            incompleteElementsLock.lock();
+            try {
                 incompleteCacheRefs.removeIf(x -> x.resolveCacheRef() != null);
+            } finally {
+                incompleteElementsLock.unlock();
             }
         }
         if (!incompleteStatements.isEmpty()) {
-            synchronized (incompleteStatements) {
+            incompleteElementsLock.lock();
+            try {
                 incompleteStatements.removeIf(x -> {
                     x.parseStatementNode();
                     return true;
                 });
+            } finally {
+                incompleteElementsLock.unlock();
             }
         }
         if (!incompleteMethods.isEmpty()) {
-            synchronized (incompleteMethods) {
+            incompleteElementsLock.lock();
+            try {
                 incompleteMethods.removeIf(x -> {
                     x.resolve();
                     return true;
                 });
+            } finally {
+                incompleteElementsLock.unlock();
             }
         }
     }
@@ -836,7 +1141,8 @@ public class Configuration {
         if (incompleteResultMaps.isEmpty()) {
             return;
         }
-        synchronized (incompleteResultMaps) {
+        incompleteElementsLock.lock();
+        try {
             boolean resolved;
             IncompleteElementException ex = null;
             do {
@@ -856,6 +1162,8 @@ public class Configuration {
                 // At least one result map is unresolvable.
                 throw ex;
             }
+        } finally {
+            incompleteElementsLock.unlock();
         }
     }
 
@@ -86,6 +86,20 @@ class XmlConfigBuilderTest {
       assertThat(config.getDefaultExecutorType()).isEqualTo(ExecutorType.SIMPLE);
       assertNull(config.getDefaultStatementTimeout());
       assertNull(config.getDefaultFetchSize());
+      assertThat(config.getNestedSelectBatchSize()).isEqualTo(100);
+      assertThat(config.isAdaptiveFetchSizeEnabled()).isFalse();
+      assertThat(config.getAdaptiveFetchSizeMin()).isEqualTo(10);
+      assertThat(config.getAdaptiveFetchSizeMax()).isEqualTo(1000);
+      assertThat(config.isCompiledRowMappingEnabled()).isFalse();
+      assertThat(config.getAutoMappingCacheSize()).isEqualTo(1024);
+      assertThat(config.isCompactNestedRowKeysEnabled()).isFalse();
+      assertThat(config.isCompactMapRowsEnabled()).isFalse();
+      assertThat(config.isParallelResultMappingEnabled()).isFalse();
+      assertThat(config.getParallelResultMappingBatchSize()).isEqualTo(1000);
+      assertThat(config.getDynamicSqlCacheSize()).isEqualTo(16);
+      assertThat(config.isPositionalForEachBindingEnabled()).isFalse();
+      assertThat(config.getForEachPaddingMaxSize()).isEqualTo(1000);
+      assertThat(config.getExpressionCacheSize()).isEqualTo(4096);
       assertThat(config.isMapUnderscoreToCamelCase()).isFalse();
       assertThat(config.isSafeRowBoundsEnabled()).isFalse();
       assertThat(config.getLocalCacheScope()).isEqualTo(LocalCacheScope.SESSION);
@@ -179,6 +193,20 @@ class XmlConfigBuilderTest {
       assertThat(config.getDefaultExecutorType()).isEqualTo(ExecutorType.BATCH);
       assertThat(config.getDefaultStatementTimeout()).isEqualTo(10);
       assertThat(config.getDefaultFetchSize()).isEqualTo(100);
+      assertThat(config.getNestedSelectBatchSize()).isEqualTo(50);
+      assertThat(config.isAdaptiveFetchSizeEnabled()).isTrue();
+      assertThat(config.getAdaptiveFetchSizeMin()).isEqualTo(20);
+      assertThat(config.getAdaptiveFetchSizeMax()).isEqualTo(500);
+      assertThat(config.isCompiledRowMappingEnabled()).isTrue();
+      assertThat(config.getAutoMappingCacheSize()).isEqualTo(256);
+      assertThat(config.isCompactNestedRowKeysEnabled()).isTrue();
+      assertThat(config.isCompactMapRowsEnabled()).isTrue();
+      assertThat(config.isParallelResultMappingEnabled()).isTrue();
+      assertThat(config.getParallelResultMappingBatchSize()).isEqualTo(200);
+      assertThat(config.getDynamicSqlCacheSize()).isEqualTo(32);
+      assertThat(config.isPositionalForEachBindingEnabled()).isTrue();
+      assertThat(config.getForEachPaddingMaxSize()).isEqualTo(500);
+      assertThat(config.getExpressionCacheSize()).isEqualTo(256);
       assertThat(config.isMapUnderscoreToCamelCase()).isTrue();
       assertThat(config.isSafeRowBoundsEnabled()).isTrue();
       assertThat(config.getLocalCacheScope()).isEqualTo(LocalCacheScope.STATEMENT);
@@ -22,6 +22,7 @@ import java.io.Reader;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -376,6 +377,58 @@ class DynamicSqlSourceTest extends BaseDataTest {
     assertEquals("__frch_u_0", boundSql.getParameterMappings().get(3).getProperty());
   }
 
+  @Test
+  void shouldReuseParameterMappingsOfTheSameShape() throws Exception {
+    DynamicSqlSource source = new DynamicSqlSource(new Configuration(), mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG"),
+        new IfSqlNode(mixedContents(new TextSqlNode("WHERE ID = #{id}")), "id != null")));
+    BoundSql first = source.getBoundSql(new Bean("1"));
+    BoundSql second = source.getBoundSql(new Bean("2"));
+    BoundSql withoutId = source.getBoundSql(new Bean(null));
+    assertEquals("SELECT * FROM BLOG WHERE ID = ?", second.getSql());
+    Assertions.assertSame(first.getParameterMappings(), second.getParameterMappings());
+    assertEquals("SELECT * FROM BLOG", withoutId.getSql());
+    assertEquals(0, withoutId.getParameterMappings().size());
+  }
+
+  @Test
+  void shouldResolveParameterTypesOfEachBindingClass() throws Exception {
+    DynamicSqlSource source = new DynamicSqlSource(new Configuration(), mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG WHERE ID in"),
+        new ForEachSqlNode(new Configuration(), mixedContents(new TextSqlNode("#{item}")), "list", null, "item", "(", ")", ",")));
+    Map<String, Object> integers = new HashMap<>();
+    integers.put("list", Arrays.asList(1, 2));
+    Map<String, Object> strings = new HashMap<>();
+    strings.put("list", Arrays.asList("1", "2"));
+    assertEquals(Integer.class, source.getBoundSql(integers).getParameterMappings().get(0).getJavaType());
+    assertEquals(String.class, source.getBoundSql(strings).getParameterMappings().get(0).getJavaType());
+    assertEquals(Integer.class, source.getBoundSql(integers).getParameterMappings().get(1).getJavaType());
+  }
+
+  @Test
+  void shouldNotReuseParameterMappingsResolvedFromMapValues() throws Exception {
+    DynamicSqlSource source = new DynamicSqlSource(new Configuration(), mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG WHERE ID in"),
+        new ForEachSqlNode(new Configuration(), mixedContents(new TextSqlNode("#{item.id}")), "list", null, "item", "(", ")", ",")));
+    Map<String, Object> integers = new HashMap<>();
+    integers.put("list", Arrays.asList(Collections.singletonMap("id", 1)));
+    Map<String, Object> strings = new HashMap<>();
+    strings.put("list", Arrays.asList(Collections.singletonMap("id", "1")));
+    assertEquals(Integer.class, source.getBoundSql(integers).getParameterMappings().get(0).getJavaType());
+    assertEquals(String.class, source.getBoundSql(strings).getParameterMappings().get(0).getJavaType());
+  }
+
+  @Test
+  void shouldParseEveryExecutionWhenTheCacheIsDisabled() throws Exception {
+    final Configuration configuration = new Configuration();
+    configuration.setDynamicSqlCacheSize(0);
+    DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(new TextSqlNode("SELECT * FROM BLOG WHERE ID = #{id}")));
+    BoundSql first = source.getBoundSql(new Bean("1"));
+    BoundSql second = source.getBoundSql(new Bean("2"));
+    Assertions.assertNotSame(first.getParameterMappings(), second.getParameterMappings());
+    assertEquals(first.getParameterMappings().get(0).getProperty(), second.getParameterMappings().get(0).getProperty());
+  }
+
   private DynamicSqlSource createDynamicSqlSource(SqlNode... contents) throws IOException, SQLException {
     createBlogDataSource();
     final String resource = "org/apache/ibatis/builder/MapperConfig.xml";
@@ -0,0 +1,66 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import org.apache.ibatis.cache.impl.BoundedConcurrentCache;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class BoundedConcurrentCacheTest {
+
+  @Test
+  void shouldKeepItemsReadSinceTheLastEviction() {
+    Cache cache = BoundedConcurrentCache.newCache("default", 5);
+    for (int i = 0; i < 6; i++) {
+      cache.putObject(i, i);
+    }
+    assertEquals(5, cache.getSize());
+    assertEquals(3, cache.getObject(3));
+    for (int i = 6; i < 9; i++) {
+      cache.putObject(i, i);
+    }
+    assertEquals(3, cache.getObject(3));
+    assertEquals(5, cache.getSize());
+  }
+
+  @Test
+  void shouldNotCreateACacheOfNoItems() {
+    assertNull(BoundedConcurrentCache.newCache("default", 0));
+  }
+
+  @Test
+  void shouldRemoveItemOnDemand() {
+    Cache cache = BoundedConcurrentCache.newCache("default", 5);
+    cache.putObject(0, 0);
+    assertNotNull(cache.getObject(0));
+    cache.removeObject(0);
+    assertNull(cache.getObject(0));
+  }
+
+  @Test
+  void shouldFlushAllItemsOnDemand() {
+    Cache cache = BoundedConcurrentCache.newCache("default", 5);
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    assertNotNull(cache.getObject(0));
+    assertNotNull(cache.getObject(4));
+    cache.clear();
+    assertNull(cache.getObject(0));
+    assertNull(cache.getObject(4));
+  }
+
+}
@@ -0,0 +1,105 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
+import org.junit.jupiter.api.Test;
+
+class ConnectionReuseExecutorTest extends BaseExecutorTest {
+
+  @Test
+  void shouldReuseStatementsOfPooledConnectionAcrossSessions() throws Exception {
+    PooledDataSource pooledDataSource = createPooledDataSource(BLOG_PROPERTIES);
+    try {
+      pooledDataSource.setPoolMaximumActiveConnections(1);
+      pooledDataSource.setPoolMaximumIdleConnections(1);
+      MappedStatement selectStatement = ExecutorTestHelper.prepareSelectAllAuthorsAutoMappedStatement(config);
+      String key = ConnectionReuseExecutor.getStatementKey(selectStatement, selectStatement.getBoundSql(null).getSql());
+
+      selectAllAuthors(pooledDataSource, selectStatement);
+      Statement statement;
+      try (Connection connection = pooledDataSource.getConnection()) {
+        statement = PooledDataSource.getStatementCache(connection).get(key);
+        assertNotNull(statement);
+      }
+
+      selectAllAuthors(pooledDataSource, selectStatement);
+      try (Connection connection = pooledDataSource.getConnection()) {
+        assertSame(statement, PooledDataSource.getStatementCache(connection).get(key));
+        assertEquals(1, PooledDataSource.getStatementCache(connection).size());
+      }
+    } finally {
+      pooledDataSource.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldNotShareStatementsPreparedDifferently() throws Exception {
+    PooledDataSource pooledDataSource = createPooledDataSource(BLOG_PROPERTIES);
+    try {
+      pooledDataSource.setPoolMaximumActiveConnections(1);
+      pooledDataSource.setPoolMaximumIdleConnections(1);
+      MappedStatement selectStatement = ExecutorTestHelper.prepareSelectAllAuthorsAutoMappedStatement(config);
+      MappedStatement smallFetchStatement = new MappedStatement.Builder(config, "selectAuthorAutoMapSmallFetch",
+          selectStatement.getSqlSource(), SqlCommandType.SELECT).resultMaps(selectStatement.getResultMaps()).fetchSize(10).build();
+      String sql = selectStatement.getBoundSql(null).getSql();
+
+      selectAllAuthors(pooledDataSource, selectStatement);
+      selectAllAuthors(pooledDataSource, smallFetchStatement);
+      selectAllAuthors(pooledDataSource, selectStatement);
+      try (Connection connection = pooledDataSource.getConnection()) {
+        assertEquals(2, PooledDataSource.getStatementCache(connection).size());
+        Statement statement = PooledDataSource.getStatementCache(connection).get(ConnectionReuseExecutor.getStatementKey(selectStatement, sql));
+        Statement smallFetchStatementPrepared = PooledDataSource.getStatementCache(connection)
+            .get(ConnectionReuseExecutor.getStatementKey(smallFetchStatement, sql));
+        assertNotSame(statement, smallFetchStatementPrepared);
+        assertEquals(1000, statement.getFetchSize());
+        assertEquals(2000, statement.getQueryTimeout());
+        assertEquals(10, smallFetchStatementPrepared.getFetchSize());
+      }
+    } finally {
+      pooledDataSource.forceCloseAll();
+    }
+  }
+
+  private void selectAllAuthors(PooledDataSource pooledDataSource, MappedStatement selectStatement) throws Exception {
+    Executor executor = createExecutor(new JdbcTransaction(pooledDataSource, null, false));
+    try {
+      assertEquals(2, executor.query(selectStatement, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER).size());
+      executor.commit(true);
+    } finally {
+      executor.close(false);
+    }
+  }
+
+  @Override
+  protected Executor createExecutor(Transaction transaction) {
+    return new ConnectionReuseExecutor(config, transaction);
+  }
+}
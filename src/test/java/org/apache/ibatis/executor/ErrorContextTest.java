@@ -17,6 +17,9 @@ package org.apache.ibatis.executor;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import org.junit.jupiter.api.Test;
 
 class ErrorContextTest {
@@ -55,4 +58,20 @@ class ErrorContextTest {
     assertEquals(outer, recalled);
     assertEquals(outer, ErrorContext.instance());
   }
+
+  @Test
+  void shouldRunWrappedTasksWithACopyOfTheErrorContext() throws Exception {
+    ErrorContext.instance().resource("somefile.xml").activity("some activity").sql("select 1");
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      String description = executor.submit(ErrorContext.wrap(() -> ErrorContext.instance().toString())).get();
+      assertTrue(description.contains("somefile.xml"));
+      assertTrue(description.contains("some activity"));
+      assertTrue(description.contains("select 1"));
+      assertEquals("", executor.submit(() -> ErrorContext.instance().toString()).get());
+    } finally {
+      executor.shutdown();
+      ErrorContext.instance().reset();
+    }
+  }
 }
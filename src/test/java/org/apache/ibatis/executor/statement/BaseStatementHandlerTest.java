@@ -145,4 +145,61 @@ class BaseStatementHandlerTest {
         verify(statement).setQueryTimeout(10);
     }
 
+    @Test
+    void specifyDefaultFetchSizeBeforeAnyRowCountIsRecorded() throws SQLException {
+        doReturn(true).when(configuration).isAdaptiveFetchSizeEnabled();
+        doReturn(100).when(configuration).getDefaultFetchSize();
+
+        BaseStatementHandler handler = new SimpleStatementHandler(null, mappedStatementBuilder.build(), null, null, null, null);
+        handler.setFetchSize(statement);
+
+        verify(statement).setFetchSize(100); // apply a default fetch size
+    }
+
+    @Test
+    void specifyAdaptiveFetchSizeWithinBounds() throws SQLException {
+        doReturn(true).when(configuration).isAdaptiveFetchSizeEnabled();
+        MappedStatement mappedStatement = mappedStatementBuilder.build();
+
+        BaseStatementHandler handler = new SimpleStatementHandler(null, mappedStatement, null, null, null, null);
+        mappedStatement.getRowCountStatistics().record(1);
+        handler.setFetchSize(statement);
+        verify(statement).setFetchSize(10); // apply the minimum
+
+        mappedStatement.getRowCountStatistics().record(99);
+        handler.setFetchSize(statement);
+        verify(statement).setFetchSize(26); // (3 * 1 + 99) / 4 + 1
+
+        for (int i = 0; i < 20; i++) {
+            mappedStatement.getRowCountStatistics().record(100000);
+        }
+        handler.setFetchSize(statement);
+        verify(statement).setFetchSize(1000); // apply the maximum
+    }
+
+    @Test
+    void specifyMappedStatementFetchSizeOverAdaptiveFetchSize() throws SQLException {
+        mappedStatementBuilder.fetchSize(30);
+        MappedStatement mappedStatement = mappedStatementBuilder.build();
+        mappedStatement.getRowCountStatistics().record(500);
+
+        BaseStatementHandler handler = new SimpleStatementHandler(null, mappedStatement, null, null, null, null);
+        handler.setFetchSize(statement);
+
+        verify(statement).setFetchSize(30); // apply a mapped statement fetch size
+        verify(configuration, never()).isAdaptiveFetchSizeEnabled();
+    }
+
+    @Test
+    void specifyTimeoutAndFetchSizeAgainWhenReused() throws SQLException {
+        mappedStatementBuilder.timeout(10).fetchSize(30);
+
+        BaseStatementHandler handler = new SimpleStatementHandler(null, mappedStatementBuilder.build(), null, null, null, null);
+        handler.reuse(statement, 5);
+
+        verify(statement).setQueryTimeout(0); // reset the timeout of the previous execution
+        verify(statement).setQueryTimeout(5); // apply a transaction timeout
+        verify(statement).setFetchSize(30); // apply a mapped statement fetch size
+    }
+
 }
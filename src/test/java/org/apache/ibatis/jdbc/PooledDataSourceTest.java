@@ -28,6 +28,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.datasource.pooled.StatementCache;
 import org.hsqldb.jdbc.JDBCConnection;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -91,6 +92,65 @@ class PooledDataSourceTest extends BaseDataTest {
     c.close();
   }
 
+  @Test
+  void shouldKeepStatementCacheWithRealConnection() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      ds.setPoolMaximumActiveConnections(1);
+      ds.setPoolMaximumIdleConnections(1);
+      Connection c = ds.getConnection();
+      PreparedStatement st = c.prepareStatement("values 1");
+      StatementCache statementCache = PooledDataSource.getStatementCache(c);
+      statementCache.put("values 1", st);
+      c.close();
+
+      c = ds.getConnection();
+      assertSame(statementCache, PooledDataSource.getStatementCache(c));
+      assertSame(st, PooledDataSource.getStatementCache(c).get("values 1"));
+      c.close();
+
+      ds.forceCloseAll();
+      assertTrue(st.isClosed());
+      assertEquals(0, statementCache.size());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldCloseLeastRecentlyUsedStatements() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      ds.setPoolMaximumCachedStatements(2);
+      try (Connection c = ds.getConnection()) {
+        StatementCache statementCache = PooledDataSource.getStatementCache(c);
+        PreparedStatement st1 = c.prepareStatement("values 1");
+        PreparedStatement st2 = c.prepareStatement("values 2");
+        PreparedStatement st3 = c.prepareStatement("values 3");
+        statementCache.put("values 1", st1);
+        statementCache.put("values 2", st2);
+        statementCache.get("values 1");
+        statementCache.put("values 3", st3);
+        assertEquals(2, statementCache.size());
+        assertTrue(st2.isClosed());
+        assertSame(st1, statementCache.get("values 1"));
+        assertNull(statementCache.get("values 2"));
+      }
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldNotReturnStatementCacheForOtherConnections() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try (Connection c = ds.getConnection()) {
+      assertNull(PooledDataSource.getStatementCache(PooledDataSource.unwrapConnection(c)));
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
   @Disabled("See the comments")
   @Test
   void shouldReconnectWhenServerKilledLeakedConnection() throws Exception {
@@ -17,6 +17,7 @@ package org.apache.ibatis.mapping;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -58,6 +59,23 @@ class BoundSqlTest {
     assertTrue(boundSql.hasAdditionalParameter("array[99]"), "should return true even if the element does not exists.");
   }
 
+  @Test
+  void shouldNotHaveValuesForMappingsAddedAfterBinding() {
+    Configuration configuration = new Configuration();
+    List<ParameterMapping> params = new ArrayList<>();
+    params.add(new ParameterMapping.Builder(configuration, "__frch_0", Object.class).build());
+    BoundSql boundSql = new BoundSql(configuration, "some sql", params, new Object());
+    boundSql.setParameterValue(0, 1);
+    params.add(new ParameterMapping.Builder(configuration, "offset", Object.class).build());
+
+    assertTrue(boundSql.hasParameterValue(0));
+    assertFalse(boundSql.hasParameterValue(1));
+    boundSql.setParameterValue(1, 10);
+    assertTrue(boundSql.hasParameterValue(1));
+    assertEquals(1, boundSql.getParameterValue(0));
+    assertEquals(10, boundSql.getParameterValue(1));
+  }
+
   public static class Person {
     public Integer id;
   }
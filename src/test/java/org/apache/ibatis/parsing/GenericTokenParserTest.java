@@ -76,6 +76,30 @@ class GenericTokenParserTest {
     assertEquals("Hello } ${ this is a test.", parser.parse("Hello } ${ this is a test."));
   }
 
+  @Test
+  void shouldTokenizeLikeItParses() {
+    TokenHandler handler = new VariableTokenHandler(new HashMap<String, String>() {
+      {
+        put("first_name", "James");
+        put("initial", "T");
+        put("last_name", "Kirk");
+        put("var{with}brace", "Hiya");
+        put("", "");
+      }
+    });
+    GenericTokenParser parser = new GenericTokenParser("${", "}", handler);
+    String[] texts = { "${first_name} ${initial} ${last_name} reporting.", "{}${first_name}${initial}${last_name}",
+        "}${first_name}}${initial}{${last_name}{{}}${}", "${", "${\\}", "${var{with\\}brace}", "\\${first_name}",
+        "Hello } ${ this is a test.", "No tokens", "", null };
+    for (String text : texts) {
+      TokenizedText tokenizedText = parser.tokenize(text);
+      assertEquals(parser.parse(text), tokenizedText.parse(handler), text);
+      assertEquals(parser.parse(text), tokenizedText.parse(handler), text);
+    }
+    Assertions.assertTrue(parser.tokenize("${first_name}").hasTokens());
+    Assertions.assertFalse(parser.tokenize("\\${first_name} ${").hasTokens());
+  }
+
   @Test
   void shallNotInterpolateSkippedVaiables() {
     GenericTokenParser parser = new GenericTokenParser("${", "}", new VariableTokenHandler(new HashMap<>()));
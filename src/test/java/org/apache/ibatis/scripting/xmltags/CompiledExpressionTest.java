@@ -0,0 +1,142 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class CompiledExpressionTest {
+
+  private static final String[] EXPRESSIONS = {
+      "username",
+      "username == 'cbegin'",
+      "username eq \"cbegin\"",
+      "username != null and username != ''",
+      "id > 0 && id lt 10",
+      "id >= 1 and id <= 1",
+      "id gte 2 or id lte 0",
+      "!(id == 1)",
+      "not password",
+      "password == null || bio != null",
+      "username.length() > 3 and !username.isEmpty()",
+      "favouriteSection != null",
+      "_parameter != null",
+      "_databaseId == null",
+      "bio == 'NA' or bio == 'N/A'",
+      "username and bio",
+      "password or id" };
+
+  private static final String[] MAP_EXPRESSIONS = {
+      "ids != null and ids.size() > 0",
+      "ids.isEmpty()",
+      "name == 'xy'",
+      "nested.level > 1",
+      "nested.level eq 2 and nested.missing == null",
+      "type == \"A\"",
+      "missing == null" };
+
+  @Test
+  void shouldCompileTheCommonSubset() {
+    for (String expression : EXPRESSIONS) {
+      assertNotNull(CompiledExpression.compile(expression), expression);
+    }
+    for (String expression : MAP_EXPRESSIONS) {
+      assertNotNull(CompiledExpression.compile(expression), expression);
+    }
+  }
+
+  @Test
+  void shouldNotCompileOtherExpressions() {
+    for (String expression : new String[] { "id + 1 > 2", "ids[0] == 1", "@java.lang.Math@max(1, 2)", "id == 1 ? true : false",
+        "username.indexOf('b') > 0", "id in {1, 2}", "id == 1.5", "id == 1L", "username == 'c\\'begin'", "#this", "id = 1",
+        "order == null and", "(id == 1", "" }) {
+      assertNull(CompiledExpression.compile(expression), expression);
+    }
+  }
+
+  @Test
+  void shouldEvaluateLikeOgnl() {
+    Author author = new Author(1, "cbegin", null, "cbegin@apache.org", "N/A", Section.NEWS);
+    Map<String, Object> bindings = new DynamicContext(new Configuration(), author).getBindings();
+    for (String expression : EXPRESSIONS) {
+      assertEquals(OgnlCache.getValue(expression, bindings), CompiledExpression.compile(expression).getValue(bindings), expression);
+    }
+
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("ids", new ArrayList<>(Arrays.asList(1, 2, 3)));
+    parameter.put("name", "xy");
+    parameter.put("nested", Collections.singletonMap("level", 2));
+    parameter.put("type", "A");
+    bindings = new DynamicContext(new Configuration(), parameter).getBindings();
+    for (String expression : MAP_EXPRESSIONS) {
+      assertEquals(OgnlCache.getValue(expression, bindings), CompiledExpression.compile(expression).getValue(bindings), expression);
+    }
+
+    // 'A' is a Character, compared to a String as numbers by OGNL
+    Map<String, Object> stringBindings = bindings;
+    assertThrows(NumberFormatException.class, () -> OgnlCache.getValue("type == 'A'", stringBindings));
+    assertThrows(NumberFormatException.class, () -> CompiledExpression.compile("type == 'A'").getValue(stringBindings));
+  }
+
+  @Test
+  void shouldLeaveUnsupportedValuesToOgnl() {
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("ids", new ArrayList<>(Arrays.asList(1, 2, 3)));
+    parameter.put("nested", Collections.singletonMap("size", 10));
+    Map<String, Object> bindings = new DynamicContext(new Configuration(), parameter).getBindings();
+    ExpressionEvaluator evaluator = new ExpressionEvaluator();
+
+    // the size of a list and of a map are properties in OGNL
+    assertThrows(RuntimeException.class, () -> CompiledExpression.compile("ids.size == 3").getValue(bindings));
+    assertTrue(evaluator.evaluateBoolean("ids.size == 3", bindings));
+    assertTrue(evaluator.evaluateBoolean("nested.size == 1", bindings));
+    assertEquals(OgnlCache.getValue("ids.size", bindings), ExpressionEvaluator.getValue("ids.size", bindings));
+  }
+
+  @Test
+  void shouldNotEvaluateAFailingGetterTwice() {
+    FailingBean bean = new FailingBean();
+    Map<String, Object> bindings = new DynamicContext(new Configuration(), Collections.singletonMap("bean", bean)).getBindings();
+
+    assertThrows(BuilderException.class, () -> new ExpressionEvaluator().evaluateBoolean("bean.value == 1", bindings));
+    assertEquals(1, bean.invocations);
+  }
+
+  public static class FailingBean {
+    private int invocations;
+
+    public int getValue() {
+      invocations++;
+      throw new IllegalStateException("failed");
+    }
+  }
+
+}
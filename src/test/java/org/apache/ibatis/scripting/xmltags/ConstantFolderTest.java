@@ -0,0 +1,93 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.parsing.XNode;
+import org.apache.ibatis.parsing.XPathParser;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class ConstantFolderTest {
+
+  @Test
+  void shouldFoldTestsAndSubstitutionsOfTheDatabaseId() {
+    Configuration configuration = configuration("hsql");
+    MixedSqlNode folded = ConstantFolder.fold(configuration, parse(configuration,
+        "select * from ${_databaseId}_blog <where> <if test=\"_databaseId == 'hsql'\"> and id = #{id} </if>"
+            + " <if test=\"_databaseId != 'hsql'\"> and id = #{id} + 1 </if> </where>"));
+    assertEquals("select * from hsql_blog WHERE id = #{id}", normalize(ConstantFolder.getStaticSql(configuration, folded)));
+  }
+
+  @Test
+  void shouldChooseTheFirstConstantBranch() {
+    Configuration configuration = configuration("hsql");
+    MixedSqlNode folded = ConstantFolder.fold(configuration, parse(configuration,
+        "select * from blog <choose> <when test=\"_databaseId == 'oracle'\"> where rownum = 1 </when>"
+            + " <when test=\"_databaseId == 'hsql'\"> limit 1 </when> <when test='id != null'> where id = #{id} </when>"
+            + " <otherwise> fetch first row only </otherwise> </choose>"));
+    assertEquals("select * from blog limit 1", normalize(ConstantFolder.getStaticSql(configuration, folded)));
+  }
+
+  @Test
+  void shouldKeepTheBranchesThatDependOnTheParameter() {
+    Configuration configuration = configuration("hsql");
+    MixedSqlNode folded = ConstantFolder.fold(configuration, parse(configuration,
+        "select * from blog <where> <if test=\"_databaseId == 'hsql' and id != null\"> id = #{id} </if>"
+            + " <if test=\"_databaseId == 'oracle'\"> rownum = 1 </if> </where>"));
+    assertNull(ConstantFolder.getStaticSql(configuration, folded));
+
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("id", 1);
+    DynamicContext context = new DynamicContext(configuration, parameter);
+    folded.apply(context);
+    assertEquals("select * from blog WHERE id = #{id}", normalize(context.getSql()));
+  }
+
+  @Test
+  void shouldNotFoldStatementsThatReferenceOrBindTheDatabaseId() {
+    Configuration configuration = configuration("hsql");
+    assertNull(ConstantFolder.getStaticSql(configuration, ConstantFolder.fold(configuration,
+        parse(configuration, "select #{_databaseId} <if test=\"_databaseId == 'hsql'\"> from blog </if>"))));
+    MixedSqlNode rootSqlNode = parse(configuration,
+        "select * from blog <bind name='_databaseId' value='name' /> <if test=\"_databaseId == 'hsql'\"> limit 1 </if>");
+    assertSame(rootSqlNode, ConstantFolder.fold(configuration, rootSqlNode));
+    rootSqlNode = parse(configuration, "select * from blog <if test=\"_databaseId == 'hsql'\"> limit 1 </if>");
+    assertSame(rootSqlNode, ConstantFolder.fold(new Configuration(), rootSqlNode));
+  }
+
+  private static Configuration configuration(String databaseId) {
+    Configuration configuration = new Configuration();
+    configuration.setDatabaseId(databaseId);
+    return configuration;
+  }
+
+  private static MixedSqlNode parse(Configuration configuration, String script) {
+    XNode node = new XPathParser("<select>" + script + "</select>").evalNode("/select");
+    return new XMLScriptBuilder(configuration, node).parseDynamicTags(node);
+  }
+
+  private static String normalize(String sql) {
+    return sql == null ? null : sql.replaceAll("\\s+", " ").trim();
+  }
+
+}
@@ -0,0 +1,90 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Collections;
+
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class ExpressionCacheTest {
+
+  @Test
+  void shouldParseEachExpressionOnce() throws Exception {
+    ExpressionCache cache = new ExpressionCache(16);
+    CompiledExpression compiledExpression = cache.getCompiledExpression("id != null");
+    assertNotNull(compiledExpression);
+    assertSame(compiledExpression, cache.getCompiledExpression("id != null"));
+    assertSame(cache.getOgnlExpression("id != null"), cache.getOgnlExpression("id != null"));
+    assertNull(cache.getCompiledExpression("@java.lang.Math@abs(id)"));
+    assertEquals(2, cache.getSize());
+    assertEquals(2, cache.getMisses());
+    assertEquals(3, cache.getHits());
+  }
+
+  @Test
+  void shouldEvictTheExpressionsNotUsedRecently() {
+    ExpressionCache cache = new ExpressionCache(4);
+    for (int i = 0; i < 4; i++) {
+      cache.getCompiledExpression("id == " + i);
+    }
+    for (int i = 4; i < 100; i++) {
+      cache.getCompiledExpression("id == 0");
+      cache.getCompiledExpression("id == " + i);
+    }
+    assertEquals(4, cache.getSize());
+    assertEquals(cache.getMisses() - cache.getSize(), cache.getEvictions());
+    long misses = cache.getMisses();
+    cache.getCompiledExpression("id == 0");
+    assertEquals(misses, cache.getMisses());
+  }
+
+  @Test
+  void shouldNotKeepExpressionsWhenDisabled() {
+    ExpressionCache cache = new ExpressionCache(0);
+    assertNotNull(cache.getCompiledExpression("id != null"));
+    assertNotNull(cache.getCompiledExpression("id != null"));
+    assertEquals(0, cache.getSize());
+    assertEquals(2, cache.getMisses());
+  }
+
+  @Test
+  void shouldCacheTheExpressionsOfEachConfiguration() {
+    Configuration configuration = new Configuration();
+    Configuration otherConfiguration = new Configuration();
+    otherConfiguration.setExpressionCacheSize(8);
+    ExpressionEvaluator evaluator = new ExpressionEvaluator();
+    for (int i = 0; i < 3; i++) {
+      DynamicContext context = new DynamicContext(configuration, Collections.singletonMap("id", 1));
+      assertEquals(true, evaluator.evaluateBoolean("id != null", context.getBindings()));
+      assertEquals(true, evaluator.evaluateBoolean("@java.lang.Math@abs(id) == 1", context.getBindings()));
+    }
+    DynamicContext context = new DynamicContext(otherConfiguration, Collections.singletonMap("id", 1));
+    assertEquals(true, evaluator.evaluateBoolean("id != null", context.getBindings()));
+
+    assertEquals(2, configuration.getExpressionCache().getSize());
+    assertEquals(2, configuration.getExpressionCache().getMisses());
+    assertEquals(7, configuration.getExpressionCache().getHits());
+    assertEquals(8, otherConfiguration.getExpressionCache().getMaxSize());
+    assertEquals(1, otherConfiguration.getExpressionCache().getSize());
+  }
+
+}
@@ -0,0 +1,165 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.parsing.XNode;
+import org.apache.ibatis.parsing.XPathParser;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class SqlProgramTest {
+
+  private static final String[] SCRIPTS = {
+      "select * from blog <where> <if test='id != null'> and id = #{id} </if> <if test='title != null'> AND title = #{title} </if> </where>",
+      "select * from blog <where> <if test='id == null'> and id is null </if> </where> order by id",
+      "update blog <set> <if test='title != null'> title = #{title}, </if> <if test='id != null'> author_id = #{id}, </if> </set> where id = #{id}",
+      "select * from blog where id in <foreach collection='ids' item='item' index='i' open='(' close=')' separator=','> #{item} </foreach>",
+      "select * from blog where id in <foreach collection='ids' item='item' open='(' close=')' separator=',' padding='true'>#{item}</foreach>",
+      "select * from blog <where> <foreach collection='ids' item='item' separator='or'> <if test='item > 1'> id = #{item} </if> </foreach> </where>",
+      "select * from blog <trim prefix='WHERE' prefixOverrides='and |or ' suffix='limit 1' suffixOverrides=','> <choose>"
+          + " <when test='title == null'> and title is null, </when> <when test='ids.size() > 2'> or id > 2, </when>"
+          + " <otherwise> and 1 = 1 </otherwise> </choose> </trim>",
+      "insert into blog values <foreach collection='rows' item='row' separator=','> (<foreach collection='row' item='value' separator=','>"
+          + "#{value}, #{row[0]}</foreach>) </foreach>",
+      "select * from blog <foreach collection='ids' item='item' index='i' separator='union'> <where> <if test='i > 0'> and id = #{item} </if>"
+          + " and #{ i } = #{item} </where> </foreach>",
+      "select * from blog <foreach collection='attributes' item='value' index='key' separator=' and ' open='where '> ${key} = #{value} </foreach>",
+      "select * from blog <bind name='pattern' value=\"'%' + table + '%'\" /> where title like #{pattern} <if test='ids.isEmpty()'> and 1 = 0 </if>",
+      "select * from blog <foreach collection='empty' item='item' open='where id in (' close=')'> #{item} </foreach>",
+      "select * from ${table} <where> <set> , </set> <trim suffixOverrides='and'> and </trim> </where>" };
+
+  @Test
+  void shouldGenerateTheSqlOfTheTree() {
+    assertSameAsTree(new Configuration());
+  }
+
+  @Test
+  void shouldBindByPositionLikeTheTree() {
+    Configuration configuration = new Configuration();
+    configuration.setPositionalForEachBindingEnabled(true);
+    assertSameAsTree(configuration);
+  }
+
+  private static void assertSameAsTree(Configuration configuration) {
+    Map<String, Object> attributes = new LinkedHashMap<>();
+    attributes.put("title", "SQL");
+    attributes.put("author_id", 101);
+    List<Map<String, Object>> parameters = new ArrayList<>();
+    parameters.add(parameter(1, "SQL", Arrays.asList(1, 2, 3), attributes));
+    parameters.add(parameter(null, null, Collections.emptyList(), Collections.emptyMap()));
+    parameters.add(parameter(2, null, Arrays.asList(0, 5), Collections.singletonMap("id", 3)));
+
+    for (String script : SCRIPTS) {
+      SqlNode sqlNode = parse(configuration, script);
+      SqlProgram sqlProgram = SqlProgram.compile(sqlNode);
+      assertNotNull(sqlProgram, script);
+      for (Map<String, Object> parameter : parameters) {
+        DynamicContext expected = new DynamicContext(configuration, parameter);
+        sqlNode.apply(expected);
+        DynamicContext actual = new DynamicContext(configuration, parameter);
+        sqlProgram.apply(actual);
+        assertEquals(expected.getSql(), actual.getSql(), script);
+        assertEquals(expected.getBindings(), actual.getBindings(), script);
+        assertEquals(expected.getPositionalParameters(), actual.getPositionalParameters(), script);
+      }
+    }
+  }
+
+  @Test
+  void shouldTrimInPlace() {
+    Configuration configuration = new Configuration();
+    SqlProgram sqlProgram = SqlProgram.compile(parse(configuration,
+        "update blog <set> <if test='title != null'> title = #{title}, </if> <if test='id != null'> author_id = #{id}, </if> </set>"
+            + " <where> <if test='id != null'> AND id = #{id} </if> </where>"));
+    DynamicContext context = new DynamicContext(configuration, parameter(1, "SQL", null, null));
+    sqlProgram.apply(context);
+    assertEquals("update blog  SET title = #{title},   author_id = #{id}   WHERE  id = #{id}", context.getSql());
+  }
+
+  @Test
+  void shouldRenderProgramsNestedInARendering() {
+    Configuration configuration = new Configuration();
+    SqlNode innerTree = parse(configuration, "select id from author <where> <if test='id != null'> id = #{id} </if> </where>");
+    SqlProgram inner = SqlProgram.compile(innerTree);
+    SqlProgram outer = SqlProgram.compile(parse(configuration,
+        "select * from blog <where> <if test='author != null'> and author_id = 1 </if> <if test='id != null'> and id = #{id} </if> </where>"));
+    List<String> innerSql = new ArrayList<>();
+    Map<String, Object> parameter = new HashMap<String, Object>() {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      public Object get(Object key) {
+        if ("author".equals(key)) {
+          // like a lazy loaded property that runs a statement
+          DynamicContext context = new DynamicContext(configuration, parameter(2, null, null, null));
+          inner.apply(context);
+          innerSql.add(context.getSql());
+        }
+        return super.get(key);
+      }
+    };
+    parameter.put("author", "author");
+    parameter.put("id", 1);
+    DynamicContext context = new DynamicContext(configuration, parameter);
+    outer.apply(context);
+    assertEquals("select * from blog  WHERE  author_id = 1   and id = #{id}", context.getSql());
+    DynamicContext expected = new DynamicContext(configuration, parameter(2, null, null, null));
+    innerTree.apply(expected);
+    assertEquals(Collections.singletonList(expected.getSql()), innerSql);
+  }
+
+  @Test
+  void shouldNotCompileOtherNodes() {
+    Configuration configuration = new Configuration();
+    SqlNode custom = context -> {
+      context.appendSql("custom");
+      return true;
+    };
+    assertNull(SqlProgram.compile(new MixedSqlNode(Arrays.asList(new StaticTextSqlNode("select"), custom))));
+    assertNull(SqlProgram.compile(new WhereSqlNode(configuration, new IfSqlNode(custom, "id != null"))));
+    assertNull(SqlProgram.compile(new ChooseSqlNode(Collections.singletonList(new StaticTextSqlNode("id = 1")), null)));
+  }
+
+  private static SqlNode parse(Configuration configuration, String script) {
+    XNode node = new XPathParser("<select>" + script + "</select>").evalNode("/select");
+    return new XMLScriptBuilder(configuration, node).parseDynamicTags(node);
+  }
+
+  private static Map<String, Object> parameter(Integer id, String title, List<Integer> ids, Map<String, Object> attributes) {
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("id", id);
+    parameter.put("title", title);
+    parameter.put("ids", ids);
+    parameter.put("attributes", attributes);
+    parameter.put("rows", ids == null ? null : Arrays.asList(ids, ids));
+    parameter.put("empty", Collections.emptyList());
+    parameter.put("table", "blog");
+    return parameter;
+  }
+
+}
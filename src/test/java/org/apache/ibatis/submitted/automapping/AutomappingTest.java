@@ -21,6 +21,7 @@ import java.util.List;
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.session.AutoMappingBehavior;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.SqlSessionFactoryBuilder;
@@ -170,4 +171,32 @@ class AutomappingTest {
       Assertions.assertTrue(article.version > 0, "should update version in mapping");
     }
   }
+
+  @Test
+  void shouldReuseAutoMappingPlansAcrossExecutions() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setAutoMappingBehavior(AutoMappingBehavior.PARTIAL);
+    configuration.setAutoMappingCacheSize(1024);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Assertions.assertEquals("User1", mapper.getUser(1).getName());
+      Assertions.assertEquals(1, configuration.getAutoMappingCache().getSize());
+      Assertions.assertEquals("User2", mapper.getUser(2).getName());
+      Assertions.assertEquals(1, configuration.getAutoMappingCache().getSize());
+    }
+  }
+
+  @Test
+  void shouldAutoMapWithoutSharedPlans() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setAutoMappingBehavior(AutoMappingBehavior.PARTIAL);
+    configuration.setAutoMappingCacheSize(0);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Assertions.assertNull(configuration.getAutoMappingCache());
+      Assertions.assertEquals("User1", mapper.getUser(1).getName());
+    } finally {
+      configuration.setAutoMappingCacheSize(1024);
+    }
+  }
 }
@@ -0,0 +1,161 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_nested_select;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchNestedSelectTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_nested_select/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_nested_select/CreateDB.sql");
+  }
+
+  @BeforeEach
+  void resetCounter() {
+    StatementCounter.reset();
+  }
+
+  @Test
+  void shouldLoadNestedSelectsInOneStatementEach() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Blog> blogs = mapper.getBlogs();
+      assertBlogs(blogs);
+      assertThat(StatementCounter.getCount()).isEqualTo(3);
+    }
+  }
+
+  @Test
+  void shouldBatchSameNamedPropertiesOfDifferentMappingsSeparately() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Blog> blogs = mapper.getBlogsByAuthor();
+      assertThat(blogs).extracting(blog -> blog.getAuthor().getName()).containsExactly("jim", "SALLY", "jim");
+      assertThat(StatementCounter.getCount()).isEqualTo(3);
+    }
+  }
+
+  @Test
+  void shouldMatchKeysOfMapResultsReadAsAnotherType() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      // the int blog ids are matched against the bigint keys of the post rows
+      List<Blog> blogs = mapper.getBlogsWithPostRows();
+      assertThat(blogs).extracting(blog -> blog.getPostRows().size()).containsExactly(2, 1, 0);
+      assertThat(blogs.get(0).getPostRows().get(0).get("SUBJECT")).isEqualTo("Post 1");
+      assertThat(StatementCounter.getCount()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void shouldSplitKeysByBatchSize() {
+    sqlSessionFactory.getConfiguration().setNestedSelectBatchSize(2);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Blog> blogs = mapper.getBlogs();
+      assertBlogs(blogs);
+      assertThat(StatementCounter.getCount()).isEqualTo(5);
+    } finally {
+      sqlSessionFactory.getConfiguration().setNestedSelectBatchSize(100);
+    }
+  }
+
+  @Test
+  void shouldUseSingleSelectsWithResultHandler() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = new ArrayList<>();
+      sqlSession.select("org.apache.ibatis.submitted.batch_nested_select.Mapper.getBlogs",
+          context -> blogs.add((Blog) context.getResultObject()));
+      assertBlogs(blogs);
+      // the author of the third blog comes from the local cache
+      assertThat(StatementCounter.getCount()).isEqualTo(6);
+    }
+  }
+
+  @Test
+  void shouldLoadLazyPropertiesOfSiblingsTogether() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Blog> blogs = mapper.getBlogsLazily();
+      assertThat(StatementCounter.getCount()).isEqualTo(1);
+      assertThat(blogs.get(1).getAuthor().getName()).isEqualTo("sally");
+      assertThat(StatementCounter.getCount()).isEqualTo(2);
+      assertBlogs(blogs);
+      assertThat(StatementCounter.getCount()).isEqualTo(3);
+    }
+  }
+
+  @Test
+  void shouldLoadLazySiblingsUpToBatchSize() {
+    sqlSessionFactory.getConfiguration().setNestedSelectBatchSize(2);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Blog> blogs = mapper.getBlogsLazily();
+      assertThat(blogs.get(0).getAuthor().getName()).isEqualTo("jim");
+      assertThat(blogs.get(1).getAuthor().getName()).isEqualTo("sally");
+      assertThat(StatementCounter.getCount()).isEqualTo(2);
+      assertThat(blogs.get(2).getAuthor().getName()).isEqualTo("jim");
+      assertThat(StatementCounter.getCount()).isEqualTo(3);
+    } finally {
+      sqlSessionFactory.getConfiguration().setNestedSelectBatchSize(100);
+    }
+  }
+
+  @Test
+  void shouldLoadLazySiblingsAfterSessionIsClosed() {
+    List<Blog> blogs;
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      blogs = mapper.getBlogsLazily();
+    }
+    assertBlogs(blogs);
+    assertThat(StatementCounter.getCount()).isEqualTo(3);
+  }
+
+  private void assertBlogs(List<Blog> blogs) {
+    assertThat(blogs).hasSize(3);
+    assertThat(blogs.get(0).getAuthor().getName()).isEqualTo("jim");
+    assertThat(blogs.get(1).getAuthor().getName()).isEqualTo("sally");
+    assertThat(blogs.get(2).getAuthor().getName()).isEqualTo("jim");
+    assertThat(blogs.get(0).getPosts()).extracting(Post::getSubject).containsExactly("Post 1", "Post 2");
+    assertThat(blogs.get(1).getPosts()).extracting(Post::getSubject).containsExactly("Post 3");
+    assertThat(blogs.get(2).getPosts()).isEmpty();
+  }
+
+}
@@ -0,0 +1,152 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.columnar_result;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.resultset.ColumnarResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.type.JdbcType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ColumnarResultTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/columnar_result/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/columnar_result/CreateDB.sql");
+  }
+
+  @Test
+  void shouldFillPrimitiveColumns() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).getTrades();
+      assertThat(result.getRowCount()).isEqualTo(3);
+      assertThat(result.getColumnNames()).containsExactly("ID", "QUANTITY", "PRICE", "TRADED_AT", "SYMBOL", "AMOUNT");
+      assertThat(result.getJdbcType(0)).isEqualTo(JdbcType.BIGINT);
+
+      assertThat(result.getLongColumn(0)).containsExactly(1L, 2L, 3L);
+      assertThat(result.getIntColumn(result.getColumnIndex("quantity"))).containsExactly(10, 0, 30);
+      assertThat(result.getDoubleColumn(2)).containsExactly(1.5, 2.25, 0.0);
+      assertThat(result.getLongColumn(3)[0]).isEqualTo(Timestamp.valueOf("2019-01-01 10:00:00").getTime());
+      assertThat(result.getObjectColumn(4)).containsExactly("AAA", "BBB", null);
+      assertThat(result.getObject(0, 5)).isEqualTo(new BigDecimal("15.00"));
+
+      assertThat(result.getLong(2, 1)).isEqualTo(30L);
+      assertThat(result.getDouble(0, 0)).isEqualTo(1.0);
+      assertThat(result.getObject(1, 3)).isEqualTo(Timestamp.valueOf("2019-01-02 11:30:00.123456"));
+    }
+  }
+
+  @Test
+  void shouldKeepTheNanosOfTimestamps() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).getTrades();
+      assertThat(result.getLongColumn(3)[1]).isEqualTo(Timestamp.valueOf("2019-01-02 11:30:00.123456").getTime());
+      assertThat(result.getNanosColumn(3)).containsExactly(0, 123456000, 0);
+      assertThatThrownBy(() -> result.getNanosColumn(0)).isInstanceOf(PersistenceException.class);
+    }
+  }
+
+  @Test
+  void shouldBeStoredInTheSecondLevelCache() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(CachedMapper.class).getTrades();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(CachedMapper.class).getTrades();
+      assertThat(sqlSessionFactory.getConfiguration().getCache("org.apache.ibatis.submitted.columnar_result.CachedMapper").getSize())
+          .isEqualTo(1);
+      assertThat(result.getRowCount()).isEqualTo(3);
+      assertThat(result.getLongColumn(0)).containsExactly(1L, 2L, 3L);
+      assertThat(result.getObjectColumn(4)).containsExactly("AAA", "BBB", null);
+      assertThat(result.getObject(1, 3)).isEqualTo(Timestamp.valueOf("2019-01-02 11:30:00.123456"));
+      assertThat(result.isNull(2, 2)).isTrue();
+    }
+  }
+
+  @Test
+  void shouldMarkNullValues() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).getTrades();
+      assertThat(result.isNull(1, 1)).isTrue();
+      assertThat(result.isNull(0, 1)).isFalse();
+      assertThat(result.getObject(1, 1)).isNull();
+      assertThat(result.getNulls(2).cardinality()).isEqualTo(1);
+      assertThat(result.isNull(2, 3)).isTrue();
+      assertThat(result.isNull(1, 5)).isTrue();
+    }
+  }
+
+  @Test
+  void shouldRejectReadsOfAnotherType() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).getTrades();
+      assertThatThrownBy(() -> result.getIntColumn(4)).isInstanceOf(PersistenceException.class)
+          .hasMessageContaining("'SYMBOL'");
+      assertThatThrownBy(() -> result.getInt(3, 1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+  }
+
+  @Test
+  void shouldApplyRowBounds() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<ColumnarResult> results = sqlSession.selectList("org.apache.ibatis.submitted.columnar_result.Mapper.getTrades", null, new RowBounds(1, 1));
+      assertThat(results).hasSize(1);
+      assertThat(results.get(0).getLongColumn(0)).containsExactly(2L);
+    }
+  }
+
+  @Test
+  void shouldReturnEmptyResult() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).getNoTrades();
+      assertThat(result.getRowCount()).isZero();
+      assertThat(result.getColumnCount()).isEqualTo(2);
+      assertThat(result.getDoubleColumn(1)).isEmpty();
+    }
+  }
+
+  @Test
+  void shouldNotSupportCursors() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThatThrownBy(() -> sqlSession.selectCursor("org.apache.ibatis.submitted.columnar_result.Mapper.getTrades"))
+          .isInstanceOf(PersistenceException.class).hasMessageContaining("ColumnarResult");
+    }
+  }
+
+}
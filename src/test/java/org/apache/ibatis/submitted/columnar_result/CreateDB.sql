@@ -0,0 +1,30 @@
+--
+--    Copyright 2009-2026 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table trades if exists;
+
+create table trades (
+  id bigint,
+  quantity int,
+  price double,
+  traded_at timestamp,
+  symbol varchar(10),
+  amount decimal(10, 2)
+);
+
+insert into trades (id, quantity, price, traded_at, symbol, amount) values(1, 10, 1.5, '2019-01-01 10:00:00', 'AAA', 15.00);
+insert into trades (id, quantity, price, traded_at, symbol, amount) values(2, null, 2.25, '2019-01-02 11:30:00.123456', 'BBB', null);
+insert into trades (id, quantity, price, traded_at, symbol, amount) values(3, 30, null, null, null, 90.50);
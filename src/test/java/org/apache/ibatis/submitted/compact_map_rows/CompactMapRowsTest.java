@@ -0,0 +1,101 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compact_map_rows;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.resultset.RowMap;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class CompactMapRowsTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/compact_map_rows/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/compact_map_rows/CreateDB.sql");
+  }
+
+  @AfterEach
+  void resetSettings() {
+    sqlSessionFactory.getConfiguration().setCallSettersOnNulls(false);
+  }
+
+  @Test
+  void shouldReturnRowsEqualToHashMaps() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Map<String, Object>> users = mapper.getUsers();
+      List<HashMap<String, Object>> hashMaps = mapper.getUsersAsHashMaps();
+      assertThat(users).allMatch(RowMap.class::isInstance);
+      assertThat(hashMaps).allMatch(HashMap.class::isInstance);
+      assertThat(users).isEqualTo(hashMaps);
+      assertThat(users.get(0)).containsEntry("NAME", "User1").containsEntry("AGE", 10);
+      assertThat(users.get(1)).hasSize(3).doesNotContainKey("NICK_NAME");
+      assertThat(users.get(1).hashCode()).isEqualTo(hashMaps.get(1).hashCode());
+    }
+  }
+
+  @Test
+  void shouldKeepNullColumnsWhenCallingSettersOnNulls() {
+    sqlSessionFactory.getConfiguration().setCallSettersOnNulls(true);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Map<String, Object> user = sqlSession.getMapper(Mapper.class).getUsers().get(1);
+      assertThat(user).hasSize(4).containsEntry("NICK_NAME", null);
+    }
+  }
+
+  @Test
+  void shouldBeModifiable() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Map<String, Object> user = sqlSession.getMapper(Mapper.class).getUsers().get(0);
+      assertThat(user.keySet()).containsExactly("ID", "NAME", "NICK_NAME", "AGE");
+
+      assertThat(user.put("NAME", "Renamed")).isEqualTo("User1");
+      assertThat(user.put("EXTRA", "value")).isNull();
+      assertThat(user.remove("NICK_NAME")).isEqualTo("one");
+      assertThat(user.keySet()).containsExactly("ID", "NAME", "AGE", "EXTRA");
+
+      Iterator<Map.Entry<String, Object>> iterator = user.entrySet().iterator();
+      iterator.next().setValue(100);
+      iterator.next();
+      iterator.remove();
+      assertThat(user).containsOnly(entry("ID", 100), entry("AGE", 10), entry("EXTRA", "value"));
+    }
+  }
+
+}
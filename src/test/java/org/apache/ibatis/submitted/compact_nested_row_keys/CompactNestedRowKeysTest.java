@@ -0,0 +1,105 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compact_nested_row_keys;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class CompactNestedRowKeysTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/compact_nested_row_keys/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/compact_nested_row_keys/CreateDB.sql");
+  }
+
+  @AfterEach
+  void enableCompactKeys() {
+    sqlSessionFactory.getConfiguration().setCompactNestedRowKeysEnabled(true);
+  }
+
+  @Test
+  void shouldGroupRowsOfUnorderedJoin() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.getMapper(Mapper.class).getBlogs();
+      assertThat(describe(blogs)).containsExactly(
+          "1:Blog1[1:Post1[1:Comment1, 2:Comment2], 2:Post2[3:Comment3]]",
+          "2:Blog2[3:Post3[4:Comment4]]",
+          "3:Blog3[]");
+    }
+  }
+
+  @Test
+  void shouldMapLikeCacheKeys() {
+    List<String> compact;
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      compact = describe(sqlSession.getMapper(Mapper.class).getBlogs());
+    }
+    sqlSessionFactory.getConfiguration().setCompactNestedRowKeysEnabled(false);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(describe(sqlSession.getMapper(Mapper.class).getBlogs())).isEqualTo(compact);
+    }
+  }
+
+  @Test
+  void shouldHandOverCompleteGroupsOfOrderedJoin() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<String> handled = new ArrayList<>();
+      sqlSession.getMapper(Mapper.class).getBlogsOrdered(context -> handled.add(describe(context.getResultObject())));
+      assertThat(handled).containsExactly(
+          "1:Blog1[1:Post1[1:Comment1, 2:Comment2], 2:Post2[3:Comment3]]",
+          "2:Blog2[3:Post3[4:Comment4]]",
+          "3:Blog3[]");
+    }
+  }
+
+  private static List<String> describe(List<Blog> blogs) {
+    return blogs.stream().sorted(Comparator.comparing(Blog::getId)).map(CompactNestedRowKeysTest::describe).collect(Collectors.toList());
+  }
+
+  private static String describe(Blog blog) {
+    return blog.getId() + ":" + blog.getTitle() + blog.getPosts().stream()
+        .sorted(Comparator.comparing(Post::getId))
+        .map(post -> post.getId() + ":" + post.getSubject() + post.getComments().stream()
+            .sorted(Comparator.comparing(Comment::getId))
+            .map(comment -> comment.getId() + ":" + comment.getBody())
+            .collect(Collectors.toList()))
+        .collect(Collectors.toList());
+  }
+
+}
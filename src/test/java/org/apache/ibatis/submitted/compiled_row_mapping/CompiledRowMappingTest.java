@@ -0,0 +1,113 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compiled_row_mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class CompiledRowMappingTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/compiled_row_mapping/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/compiled_row_mapping/CreateDB.sql");
+  }
+
+  @AfterEach
+  void resetSettings() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setCallSettersOnNulls(false);
+    configuration.setReturnInstanceForEmptyRow(false);
+  }
+
+  @Test
+  void shouldMapAutoMappedColumns() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsersAutoMapped();
+      assertThat(users).extracting(User::getId).containsExactly(1, 2, 3);
+      assertThat(users).extracting(User::getName).containsExactly("User1", "User2", null);
+      assertThat(users).extracting(User::getUserAge).containsExactly(30, -1, -1);
+      assertThat(users).extracting(User::getNickName).containsExactly("one", "none", "none");
+    }
+  }
+
+  @Test
+  void shouldMapResultMapAndAutoMappedColumns() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsersWithResultMap();
+      assertThat(users).extracting(User::getName).containsExactly("User1", "User2", null);
+      assertThat(users).extracting(User::getUserAge).containsExactly(30, -1, -1);
+      assertThat(users).extracting(User::getNickName).containsExactly("one", "none", "none");
+    }
+  }
+
+  @Test
+  void shouldCallSettersOnNullsExceptForPrimitives() {
+    sqlSessionFactory.getConfiguration().setCallSettersOnNulls(true);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsersWithResultMap();
+      assertThat(users).extracting(User::getUserAge).containsExactly(30, -1, -1);
+      assertThat(users).extracting(User::getNickName).containsExactly("one", null, null);
+    }
+  }
+
+  @Test
+  void shouldReturnNullForEmptyRow() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.getMapper(Mapper.class).getEmptyRow()).isNull();
+    }
+  }
+
+  @Test
+  void shouldReturnInstanceForEmptyRow() {
+    sqlSessionFactory.getConfiguration().setReturnInstanceForEmptyRow(true);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      User user = sqlSession.getMapper(Mapper.class).getEmptyRow();
+      assertThat(user).isNotNull();
+      assertThat(user.getUserAge()).isEqualTo(-1);
+    }
+  }
+
+  @Test
+  void shouldFallBackForConstructorMappings() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsersWithConstructor();
+      assertThat(users).extracting(User::getId).containsExactly(1, 2, 3);
+      assertThat(users).extracting(User::getName).containsExactly("User1", "User2", null);
+    }
+  }
+
+}
@@ -0,0 +1,41 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.constructor_automapping;
+
+public final class ArticleSummary {
+
+  private final Integer id;
+  private final String title;
+  private final Integer authorId;
+
+  public ArticleSummary(Integer id, String title, Integer authorId) {
+    this.id = id;
+    this.title = title;
+    this.authorId = authorId;
+  }
+
+  public Integer getId() {
+    return id;
+  }
+
+  public String getTitle() {
+    return title;
+  }
+
+  public Integer getAuthorId() {
+    return authorId;
+  }
+}
@@ -22,6 +22,7 @@ import java.util.List;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.SqlSessionFactoryBuilder;
@@ -59,4 +60,35 @@ class ConstructorAutomappingTest {
     }
   }
 
+  @Test
+  void shouldMapImmutableObjectsByConstructor() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<ArticleSummary> summaries = mapper.selectArticleSummaries();
+      assertEquals(2, summaries.size());
+      assertEquals(Integer.valueOf(1), summaries.get(0).getId());
+      assertEquals("Article1", summaries.get(0).getTitle());
+      assertEquals(Integer.valueOf(100), summaries.get(0).getAuthorId());
+      assertEquals(Integer.valueOf(2), summaries.get(1).getId());
+      assertEquals("Article2", summaries.get(1).getTitle());
+      assertEquals(Integer.valueOf(200), summaries.get(1).getAuthorId());
+    }
+  }
+
+  @Test
+  void shouldReuseResolvedConstructorAcrossExecutions() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.getAutoMappingCache().clear();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertEquals(2, mapper.selectArticleSummaries().size());
+      // the resolved constructor and the (empty) property auto-mappings
+      int size = configuration.getAutoMappingCache().getSize();
+      assertEquals(2, size);
+      sqlSession.clearCache();
+      assertEquals("Article2", mapper.selectArticleSummaries().get(1).getTitle());
+      assertEquals(size, configuration.getAutoMappingCache().getSize());
+    }
+  }
+
 }
@@ -27,7 +27,10 @@ create table vehicle (
 
 insert into vehicle (id, maker, vehicle_type, door_count, carrying_capacity) values
 (1, 'Maker1', 1, 5, null),
-(2, 'Maker2', 2, null, 1.5);
+(2, 'Maker2', 2, null, 1.5),
+(3, 'Maker3', 1, 3, null),
+(4, 'Maker4', 1, 5, null),
+(5, 'Maker5', 2, null, 2.5);
 
 create table owner (
 	id int,
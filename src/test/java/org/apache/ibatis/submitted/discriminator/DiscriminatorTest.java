@@ -56,6 +56,21 @@ class DiscriminatorTest {
     }
   }
 
+  @Test
+  void shouldFollowDiscriminatorChainOnEveryRow() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Vehicle> vehicles = mapper.selectVehiclesThroughDiscriminatorChain();
+      assertEquals(5, vehicles.size());
+      assertEquals(Integer.valueOf(5), ((Car)vehicles.get(0)).getDoorCount());
+      assertEquals(Truck.class, vehicles.get(1).getClass());
+      assertNull(((Car)vehicles.get(2)).getDoorCount());
+      assertEquals(Integer.valueOf(5), ((Car)vehicles.get(3)).getDoorCount());
+      assertEquals(Truck.class, vehicles.get(4).getClass());
+      assertEquals(Integer.valueOf(5), vehicles.get(4).getId());
+    }
+  }
+
   @Test
   void shouldInheritResultType() {
     // #486
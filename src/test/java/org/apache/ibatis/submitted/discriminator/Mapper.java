@@ -20,6 +20,7 @@ import java.util.List;
 public interface Mapper {
 
   List<Vehicle> selectVehicles();
+  List<Vehicle> selectVehiclesThroughDiscriminatorChain();
   List<Owner> selectOwnersWithAVehicle();
 
 }
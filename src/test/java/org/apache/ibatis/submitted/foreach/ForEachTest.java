@@ -19,11 +19,14 @@ import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.exceptions.PersistenceException;
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.SqlSessionFactoryBuilder;
@@ -139,4 +142,48 @@ class ForEachTest {
     }
   }
 
+  @Test
+  void shouldPadTheItemsToAPowerOfTwo() {
+    MappedStatement ms = sqlSessionFactory.getConfiguration().getMappedStatement("org.apache.ibatis.submitted.foreach.Mapper.countByPaddedIds");
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("list", Arrays.asList(1, 2, 3));
+    String sql = ms.getBoundSql(parameter).getSql();
+    Assertions.assertEquals(4, ms.getBoundSql(parameter).getParameterMappings().size());
+    parameter.put("list", Arrays.asList(1, 2, 3, 4));
+    Assertions.assertEquals(sql, ms.getBoundSql(parameter).getSql());
+    parameter.put("list", Arrays.asList(1, 2, 3, 4, 5));
+    Assertions.assertEquals(8, ms.getBoundSql(parameter).getParameterMappings().size());
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Assertions.assertEquals(3, mapper.countByPaddedIds(Arrays.asList(1, 2, 3)));
+      Assertions.assertEquals(5, mapper.countByPaddedIds(Arrays.asList(5, 4, 3, 2, 1)));
+      Assertions.assertEquals(1, mapper.countByPaddedIds(Collections.singletonList(6)));
+    }
+  }
+
+  @Test
+  void shouldNotPadPastTheMaximumSize() {
+    MappedStatement ms = sqlSessionFactory.getConfiguration().getMappedStatement("org.apache.ibatis.submitted.foreach.Mapper.countByPaddedIds");
+    Map<String, Object> parameter = new HashMap<>();
+    sqlSessionFactory.getConfiguration().setForEachPaddingMaxSize(6);
+    try {
+      parameter.put("list", Arrays.asList(1, 2, 3, 4, 5));
+      Assertions.assertEquals(6, ms.getBoundSql(parameter).getParameterMappings().size());
+      parameter.put("list", Arrays.asList(1, 2, 3, 4, 5, 6, 7));
+      Assertions.assertEquals(7, ms.getBoundSql(parameter).getParameterMappings().size());
+    } finally {
+      sqlSessionFactory.getConfiguration().setForEachPaddingMaxSize(1000);
+    }
+  }
+
+  @Test
+  void shouldRepeatTheIndexOfTheLastItemWhenPadding() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      // id in (0, 1, 2, 2), not (0, 1, 2, 3)
+      Assertions.assertEquals(2, mapper.countByPaddedIndexes(Arrays.asList(7, 8, 9)));
+    }
+  }
+
 }
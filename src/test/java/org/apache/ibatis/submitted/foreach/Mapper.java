@@ -34,4 +34,8 @@ public interface Mapper {
   int itemVariableConflict(@Param("id") Integer id, @Param("ids") List<Integer> ids, @Param("ids2") List<Integer> ids2);
 
   int indexVariableConflict(@Param("idx") Integer id, @Param("idxs") List<Integer> ids, @Param("idxs2") List<Integer> ids2);
+
+  int countByPaddedIds(List<Integer> ids);
+
+  int countByPaddedIndexes(List<Integer> ids);
 }
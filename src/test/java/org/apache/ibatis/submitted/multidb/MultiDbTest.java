@@ -16,11 +16,14 @@
 package org.apache.ibatis.submitted.multidb;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.Reader;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.SqlSessionFactoryBuilder;
@@ -69,6 +72,15 @@ public class MultiDbTest {
     }
   }
 
+  @Test
+  public void shouldFoldIfsOnTheDatabaseIdIntoStaticSql() {
+    MappedStatement mappedStatement = sqlSessionFactory.getConfiguration()
+        .getMappedStatement("org.apache.ibatis.submitted.multidb.MultiDbMapper.select3");
+    assertTrue(mappedStatement.getSqlSource() instanceof RawSqlSource);
+    assertEquals("select name from hsql where id=?",
+        mappedStatement.getBoundSql(1).getSql().replaceAll("\\s+", " ").trim());
+  }
+
   @Test
   public void shouldExecuteHsqlQueryWithInclude() {
     try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
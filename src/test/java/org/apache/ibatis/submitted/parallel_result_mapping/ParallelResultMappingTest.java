@@ -0,0 +1,113 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.parallel_result_mapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ParallelResultMappingTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/parallel_result_mapping/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/parallel_result_mapping/CreateDB.sql");
+  }
+
+  @Test
+  void shouldKeepTheOrderOfTheRows() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Item> items = sqlSession.getMapper(Mapper.class).getItems();
+      assertEquals(2000, items.size());
+      for (int i = 0; i < items.size(); i++) {
+        assertEquals(Integer.valueOf(i + 1), items.get(i).getId());
+        assertEquals("Item" + (i + 1), items.get(i).getName());
+      }
+    }
+  }
+
+  @Test
+  void shouldApplyRowBounds() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Item> items = sqlSession.getMapper(Mapper.class).getItemsWithRowBounds(new RowBounds(10, 250));
+      assertEquals(250, items.size());
+      assertEquals(Integer.valueOf(11), items.get(0).getId());
+      assertEquals(Integer.valueOf(260), items.get(249).getId());
+    }
+  }
+
+  @Test
+  void shouldStopWhenTheResultHandlerStops() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Item> items = new ArrayList<>();
+      sqlSession.getMapper(Mapper.class).handleItems(context -> {
+        items.add(context.getResultObject());
+        if (items.size() == 150) {
+          context.stop();
+        }
+      });
+      assertEquals(150, items.size());
+      assertEquals(Integer.valueOf(150), items.get(149).getId());
+      // the rows read ahead are not counted
+      assertEquals(150, sqlSessionFactory.getConfiguration()
+          .getMappedStatement("org.apache.ibatis.submitted.parallel_result_mapping.Mapper.handleItems").getRowCountStatistics().getAverage());
+    }
+  }
+
+  @Test
+  void shouldMapOnTheConfiguredExecutor() {
+    AtomicInteger threads = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(2, task -> {
+      threads.incrementAndGet();
+      Thread thread = new Thread(task);
+      thread.setDaemon(true);
+      return thread;
+    });
+    sqlSessionFactory.getConfiguration().setParallelResultMappingExecutor(executor);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Item> items = sqlSession.getMapper(Mapper.class).getItems();
+      assertEquals(2000, items.size());
+      assertEquals(Integer.valueOf(2000), items.get(1999).getId());
+      assertEquals(2, threads.get());
+    } finally {
+      sqlSessionFactory.getConfiguration().setParallelResultMappingExecutor(null);
+      executor.shutdown();
+    }
+  }
+
+}
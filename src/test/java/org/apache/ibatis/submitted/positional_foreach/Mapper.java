@@ -0,0 +1,44 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.positional_foreach;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+public interface Mapper {
+
+  @Select("<script>select id, name from items where id in"
+      + " <foreach collection='ids' item='id' open='(' close=')' separator=','>#{id}</foreach> order by id</script>")
+  List<Item> getItems(@Param("ids") List<Integer> ids);
+
+  @Select("<script>select id, name from items <where>"
+      + " <foreach collection='names' index='id' item='name' separator='or'>(id = #{id} and name = #{name})</foreach>"
+      + " </where> order by id</script>")
+  List<Item> getItemsByNames(@Param("names") Map<Integer, String> names);
+
+  @Select("<script>select id, name from items where id in (<foreach collection='groups' item='group' separator=','>"
+      + "<foreach collection='group' item='id' separator=','>#{id}</foreach></foreach>) and id &lt; #{max} order by id</script>")
+  List<Item> getItemsByGroups(@Param("groups") List<List<Integer>> groups, @Param("max") int max);
+
+  @Insert("<script>insert into items (id, name) values"
+      + " <foreach collection='items' item='item' separator=','>(#{item.id}, #{item.name,jdbcType=VARCHAR})</foreach></script>")
+  int insertItems(@Param("items") List<Item> items);
+
+}
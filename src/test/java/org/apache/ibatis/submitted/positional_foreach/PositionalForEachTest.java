@@ -0,0 +1,126 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.positional_foreach;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class PositionalForEachTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/positional_foreach/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/positional_foreach/CreateDB.sql");
+  }
+
+  @Test
+  void shouldBindTheItemsByPosition() {
+    List<Integer> ids = new ArrayList<>();
+    for (int i = 1; i <= 2000; i += 2) {
+      ids.add(i);
+    }
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("ids", ids);
+    BoundSql boundSql = sqlSessionFactory.getConfiguration()
+        .getMappedStatement("org.apache.ibatis.submitted.positional_foreach.Mapper.getItems").getBoundSql(parameter);
+    assertEquals(1000, boundSql.getParameterMappings().size());
+    assertEquals("__frch_999", boundSql.getParameterMappings().get(999).getProperty());
+    assertTrue(boundSql.hasParameterValue(999));
+    assertEquals(1999, boundSql.getParameterValue(999));
+    assertFalse(boundSql.hasAdditionalParameter("__frch_id_999"));
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Item> items = sqlSession.getMapper(Mapper.class).getItems(ids);
+      assertEquals(1000, items.size());
+      assertEquals(Integer.valueOf(1999), items.get(999).getId());
+    }
+  }
+
+  @Test
+  void shouldBindEntriesAndNestedItemsByPosition() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Map<Integer, String> names = new LinkedHashMap<>();
+      names.put(3, "Item3");
+      names.put(4, "Item5");
+      names.put(7, "Item7");
+      List<Item> items = mapper.getItemsByNames(names);
+      assertEquals(2, items.size());
+      assertEquals(Integer.valueOf(3), items.get(0).getId());
+      assertEquals(Integer.valueOf(7), items.get(1).getId());
+
+      items = mapper.getItemsByGroups(Arrays.asList(Arrays.asList(10, 20), Arrays.asList(30), Arrays.asList(40, 50)), 45);
+      assertEquals(4, items.size());
+      assertEquals(Integer.valueOf(40), items.get(3).getId());
+    }
+  }
+
+  @Test
+  void shouldBindItemPropertiesByPosition() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Item> items = new ArrayList<>();
+      for (int i = 5001; i <= 5003; i++) {
+        Item item = new Item();
+        item.setId(i);
+        item.setName(i == 5002 ? null : "New" + i);
+        items.add(item);
+      }
+      assertEquals(3, mapper.insertItems(items));
+      List<Item> inserted = mapper.getItems(Arrays.asList(5001, 5002, 5003));
+      assertEquals(3, inserted.size());
+      assertEquals("New5001", inserted.get(0).getName());
+      assertEquals(null, inserted.get(1).getName());
+      sqlSession.rollback();
+    }
+  }
+
+  @Test
+  void shouldCacheByTheValuesBoundByPosition() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertEquals(Integer.valueOf(1), mapper.getItems(Arrays.asList(1, 2)).get(0).getId());
+      assertEquals(Integer.valueOf(3), mapper.getItems(Arrays.asList(3, 4)).get(0).getId());
+    }
+  }
+
+}
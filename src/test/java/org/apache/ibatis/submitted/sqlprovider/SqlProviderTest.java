@@ -548,6 +548,51 @@ class SqlProviderTest {
 
   }
 
+  @Test
+  void shouldCacheTheSqlOfDeterministicProviders() throws NoSuchMethodException {
+    Configuration configuration = new Configuration();
+    Method noArgument = DeterministicMapper.class.getMethod("noArgument");
+    ProviderSqlSource noArgumentSqlSource = new ProviderSqlSource(configuration,
+        noArgument.getAnnotation(SelectProvider.class), DeterministicMapper.class, noArgument);
+    Method byName = DeterministicMapper.class.getMethod("byName", String.class);
+    ProviderSqlSource byNameSqlSource = new ProviderSqlSource(configuration,
+        byName.getAnnotation(SelectProvider.class), DeterministicMapper.class, byName);
+
+    DeterministicMapper.SqlProvider.invocations = 0;
+    for (int i = 0; i < 3; i++) {
+      assertEquals("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS", noArgumentSqlSource.getBoundSql(null).getSql());
+    }
+    assertEquals(1, DeterministicMapper.SqlProvider.invocations);
+
+    assertEquals("SELECT * FROM users WHERE name = ?", byNameSqlSource.getBoundSql("User1").getSql().replaceAll("\\s+", " "));
+    assertEquals("SELECT * FROM users WHERE name = ?", byNameSqlSource.getBoundSql("User2").getSql().replaceAll("\\s+", " "));
+    assertEquals("SELECT * FROM users", byNameSqlSource.getBoundSql(null).getSql().trim());
+    assertEquals(4, DeterministicMapper.SqlProvider.invocations);
+  }
+
+  public interface DeterministicMapper {
+    @SelectProvider(type = SqlProvider.class, method = "noArgument", deterministic = true)
+    int noArgument();
+
+    @SelectProvider(type = SqlProvider.class, method = "byName", deterministic = true)
+    List<User> byName(String name);
+
+    @SuppressWarnings("unused")
+    class SqlProvider {
+      static int invocations;
+
+      public static String noArgument() {
+        invocations++;
+        return "SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS";
+      }
+
+      public static String byName(String name) {
+        invocations++;
+        return "<script>SELECT * FROM users" + (name == null ? "" : " <where> name = #{name} </where>") + "</script>";
+      }
+    }
+  }
+
   @Test
   void shouldInsertUserSelective() {
     try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
@@ -0,0 +1,137 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.virtual_threads;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs thousands of virtual threads (JDK 21+) through SqlSession against a pool of two connections
+ * and a second level cache. The virtual thread scheduler is limited to a single carrier without
+ * compensation, so a thread blocked on a monitor while waiting for a connection would stall every
+ * other thread, and any park while pinned is reported by {@code jdk.tracePinnedThreads}.
+ */
+class VirtualThreadsTest {
+
+  private static final int THREADS = 2000;
+
+  private static SqlSessionFactory sqlSessionFactory;
+  private static Method newVirtualThreadPerTaskExecutor;
+  private static final Map<String, String> previousProperties = new HashMap<>();
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try {
+      newVirtualThreadPerTaskExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+    } catch (NoSuchMethodException e) {
+      // not a JDK with virtual threads
+      return;
+    }
+    // must be set before the first virtual thread is created
+    setProperty("jdk.virtualThreadScheduler.parallelism", "1");
+    setProperty("jdk.virtualThreadScheduler.maxPoolSize", "1");
+    setProperty("jdk.tracePinnedThreads", "short");
+
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/virtual_threads/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/virtual_threads/CreateDB.sql");
+  }
+
+  @AfterAll
+  static void tearDown() {
+    previousProperties.forEach((key, value) -> {
+      if (value == null) {
+        System.clearProperty(key);
+      } else {
+        System.setProperty(key, value);
+      }
+    });
+    previousProperties.clear();
+  }
+
+  private static void setProperty(String key, String value) {
+    previousProperties.put(key, System.setProperty(key, value));
+  }
+
+  @Test
+  void shouldNotPinCarrierThreads() throws Exception {
+    Assumptions.assumeTrue(newVirtualThreadPerTaskExecutor != null, "Virtual threads are not available");
+
+    ByteArrayOutputStream trace = new ByteArrayOutputStream();
+    PrintStream stdout = System.out;
+    System.setOut(new PrintStream(trace, true));
+    try {
+      assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+        ExecutorService executor = (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+        try {
+          List<Future<Integer>> futures = new ArrayList<>();
+          for (int i = 0; i < THREADS; i++) {
+            final int id = i % 3 + 1;
+            futures.add(executor.submit(() -> selectAndHoldConnection(id)));
+          }
+          for (int i = 0; i < THREADS; i++) {
+            assertEquals(Integer.valueOf(i % 3 + 1), futures.get(i).get());
+          }
+        } finally {
+          executor.shutdown();
+          executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+      });
+    } finally {
+      System.setOut(stdout);
+    }
+    assertFalse(trace.toString().contains("<== monitors"), trace::toString);
+  }
+
+  private Integer selectAndHoldConnection(int id) throws InterruptedException {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.getUser(id);
+      User user = mapper.getUserSkippingCache(id);
+      // unmounts the virtual thread while it holds one of the two pooled connections
+      Thread.sleep(1);
+      return user.getId();
+    }
+  }
+
+}